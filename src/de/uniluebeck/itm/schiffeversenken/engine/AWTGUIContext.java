@@ -5,7 +5,6 @@ import java.awt.event.*;
 import java.awt.image.*;
 import java.io.*;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 
 /**
@@ -17,9 +16,29 @@ import javax.swing.*;
 public final class AWTGUIContext extends GUIContext {
 
 	/**
-	 * The panel displaying text
+	 * The number of buffers used for active rendering
+	 */
+	private static final int ACTIVE_RENDERING_BUFFERS = 3;
+
+	/**
+	 * The maximum time in milliseconds to wait for the event dispatch thread to paint a frame in passive mode
+	 */
+	private static final long PAINT_TIMEOUT_MILLIS = 100;
+
+	/**
+	 * The panel displaying the frame in passive mode or null if active rendering is used
 	 */
 	private final JPanel panel;
+
+	/**
+	 * The AWT canvas drawn on in active mode or null if passive rendering is used
+	 */
+	private final java.awt.Canvas activeCanvas;
+
+	/**
+	 * The buffer strategy of the active canvas. It gets created once the window is visible.
+	 */
+	private BufferStrategy strategy;
 	
 	/**
 	 * The frame of the window
@@ -37,22 +56,50 @@ public final class AWTGUIContext extends GUIContext {
 	private BufferedImage bufferedImage;
 
 	/**
-	 * The scene
+	 * The cache of decoded assets
+	 */
+	private final DecodedImageCache imageCache = new DecodedImageCache();
+
+	/**
+	 * The atlas new tiles get packed into or null if every tile keeps its own image
 	 */
-	private Scene s;
+	private volatile TileAtlas atlas = null;
 
 	/**
-	 * This variable is true while a component is being painted and false otherwise
+	 * The last known position of the mouse cursor relative to the canvas. It gets
+	 * replaced as a whole by the event dispatch thread whenever the mouse moves.
+	 */
+	private volatile Vec2 cursorLocation = new Vec2(0, 0);
+
+	/**
+	 * This variable is true while a frame is handed over to the event dispatch thread in passive mode
 	 */
 	private boolean painting = false;
 
 	/**
-	 * Use this to create new GUI adapter to Java/AWT
+	 * The lock guarding the painting flag
+	 */
+	private final Object paintLock = new Object();
+
+	/**
+	 * Use this to create new GUI adapter to Java/AWT using passive rendering
 	 * @param windowtitle The title of the window
 	 * @param windowWidth The width of the window
 	 * @param windowHeight The height of the window
 	 */
 	public AWTGUIContext(String windowtitle, int windowWidth, int windowHeight) {
+		this(windowtitle, windowWidth, windowHeight, false);
+	}
+
+	/**
+	 * Use this to create new GUI adapter to Java/AWT
+	 * @param windowtitle The title of the window
+	 * @param windowWidth The width of the window
+	 * @param windowHeight The height of the window
+	 * @param activeRendering True if the game loop should present its frames itself using a buffer
+	 *                        strategy instead of asking Swing to repaint the window
+	 */
+	public AWTGUIContext(String windowtitle, int windowWidth, int windowHeight, boolean activeRendering) {
 		super(windowtitle);
 
 		// In some cases this transparently enables hardware acceleration for canvas
@@ -71,11 +118,6 @@ public final class AWTGUIContext extends GUIContext {
 		}
 
 		this.frame = new JFrame(windowtitle);
-		
-		if (System.getProperty("sun.java2d.opengl", "false").equals("true")) {
-			this.frame.createBufferStrategy(2);
-			final BufferStrategy strategy = this.frame.getBufferStrategy();
-		}
 		this.frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 		this.frame.addWindowListener(new WindowListener() {
 
@@ -106,24 +148,37 @@ public final class AWTGUIContext extends GUIContext {
 			public void windowOpened(WindowEvent arg0) {}
 		});
 
-		this.panel = new JPanel() {
-			private static final long serialVersionUID = -6104205382310524761L;
-
-			@Override
-			public void paintComponent(Graphics g) {
-				try {
-					if (!g.drawImage(bufferedImage, 0, 0, null)) {
-						Application.log("The frame couldn't be draw in time");
+		if (activeRendering) {
+			// The game loop presents its frames itself so AWT doesn't need to repaint anything
+			this.panel = null;
+			this.activeCanvas = new java.awt.Canvas();
+			this.activeCanvas.setIgnoreRepaint(true);
+			this.activeCanvas.setFocusable(false);
+			this.frame.setIgnoreRepaint(true);
+			frame.add(this.activeCanvas, BorderLayout.CENTER);
+		} else {
+			this.activeCanvas = null;
+			this.panel = new JPanel() {
+				private static final long serialVersionUID = -6104205382310524761L;
+
+				@Override
+				public void paintComponent(Graphics g) {
+					try {
+						if (!g.drawImage(bufferedImage, 0, 0, null)) {
+							Application.log("The frame couldn't be draw in time");
+						}
+						synchronized (paintLock) {
+							painting = false;
+							paintLock.notifyAll();
+						}
+					} catch (Exception e) {
+						Application.crash(e);
 					}
-					painting = false;
-				} catch (Exception e) {
-					Application.crash(e);
 				}
-			}
-		};
-		this.panel.setLayout(null);
-
-		frame.add(this.panel, BorderLayout.CENTER);
+			};
+			this.panel.setLayout(null);
+			frame.add(this.panel, BorderLayout.CENTER);
+		}
 		this.setResolution(windowWidth, windowHeight);
 		frame.addKeyListener(new KeyListener() {
 
@@ -137,7 +192,7 @@ public final class AWTGUIContext extends GUIContext {
 								+ Boolean.toString(arg0.isAltDown() || arg0.isAltGraphDown()) + " CTRL: "
 								+ arg0.isControlDown());
 					}
-					s.keyPressed(arg0.getKeyChar(), arg0.isShiftDown(), arg0.isAltDown() || arg0.isAltGraphDown(),
+					postKeyPressed(arg0.getKeyChar(), arg0.isShiftDown(), arg0.isAltDown() || arg0.isAltGraphDown(),
 							arg0.isControlDown(), keyCode == KeyEvent.VK_DOWN || keyCode == KeyEvent.VK_KP_DOWN, keyCode == KeyEvent.VK_UP || keyCode == KeyEvent.VK_KP_UP,
 							keyCode == KeyEvent.VK_LEFT || keyCode == KeyEvent.VK_KP_LEFT, keyCode == KeyEvent.VK_RIGHT || keyCode == KeyEvent.VK_KP_RIGHT);
 				} catch (Exception e) {
@@ -153,7 +208,7 @@ public final class AWTGUIContext extends GUIContext {
 				// We use the key pressed logger as this one filters out all non char keys.
 			}
 		});
-		frame.addMouseListener(new MouseListener() {
+		final MouseListener mouseListener = new MouseListener() {
 
 			@Override
 			public void mouseClicked(MouseEvent arg0) {
@@ -165,12 +220,15 @@ public final class AWTGUIContext extends GUIContext {
 					// coordinates grow from the top to the bottom and the mouse coordinates grow
 					// from the bottom to the top (except when they don't which I'll politely ignore
 					// for now).
-					Vec2 pos = new Vec2(arg0.getPoint().x - (frame.getWidth() - frame.getContentPane().getWidth()),
-							arg0.getPoint().y - (frame.getHeight() - frame.getContentPane().getHeight()));
+					Vec2 pos = new Vec2(arg0.getPoint().x, arg0.getPoint().y);
+					if (arg0.getComponent() == frame) {
+						pos = new Vec2(arg0.getPoint().x - (frame.getWidth() - frame.getContentPane().getWidth()),
+								arg0.getPoint().y - (frame.getHeight() - frame.getContentPane().getHeight()));
+					}
 					if (isInputDebuggingEnabled()) {
 						Application.log("INPUT: Mouse click at " + pos.toString());
 					}
-					s.clickedAt(pos);
+					postClick(pos);
 				} catch (Exception e) {
 					Application.crash(e);
 				}
@@ -187,18 +245,60 @@ public final class AWTGUIContext extends GUIContext {
 
 			@Override
 			public void mouseReleased(MouseEvent arg0) {}
-		});
+		};
+		final MouseAdapter cursorTracker = new MouseAdapter() {
+
+			@Override
+			public void mouseMoved(MouseEvent arg0) {
+				trackCursor(arg0);
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent arg0) {
+				trackCursor(arg0);
+			}
+
+			@Override
+			public void mouseEntered(MouseEvent arg0) {
+				trackCursor(arg0);
+			}
+
+			@Override
+			public void mouseExited(MouseEvent arg0) {
+				// The exit point lies on the border so hovering ends once the cursor left
+				trackCursor(arg0);
+			}
+		};
+		// The heavyweight canvas receives the clicks on its area itself
+		frame.addMouseListener(mouseListener);
+		frame.addMouseListener(cursorTracker);
+		frame.addMouseMotionListener(cursorTracker);
+		if (this.activeCanvas != null) {
+			this.activeCanvas.addMouseListener(mouseListener);
+			this.activeCanvas.addMouseListener(cursorTracker);
+			this.activeCanvas.addMouseMotionListener(cursorTracker);
+		}
 		this.frame.setResizable(false);
 	}
 
 	@Override
 	public Canvas getCanvas() {
-		while (painting) {
-			try {
-				Thread.sleep(10);
-			} catch (InterruptedException e) {
-				Application.log("Thread interrupted while waiting for drawing lock");
-				e.printStackTrace();
+		synchronized (this.paintLock) {
+			// In passive mode the event dispatch thread may still be copying the previous frame. A hidden
+			// window may never be painted though, so we don't wait forever.
+			final long deadline = System.nanoTime() + PAINT_TIMEOUT_MILLIS * 1000000L;
+			while (this.painting) {
+				final long remainingMillis = (deadline - System.nanoTime()) / 1000000L;
+				if (remainingMillis <= 0) {
+					break;
+				}
+				try {
+					this.paintLock.wait(remainingMillis);
+				} catch (InterruptedException e) {
+					Application.log("Thread interrupted while waiting for drawing lock");
+					Thread.currentThread().interrupt();
+					break;
+				}
 			}
 		}
 		c.clear();
@@ -207,8 +307,29 @@ public final class AWTGUIContext extends GUIContext {
 
 	@Override
 	public synchronized void performPaintOperation() {
-		painting = true;
-		this.panel.repaint();
+		if (this.activeCanvas == null) {
+			synchronized (this.paintLock) {
+				this.painting = true;
+			}
+			this.panel.repaint();
+			return;
+		}
+		if (this.strategy == null) {
+			return;
+		}
+		// The contents of the buffers may get lost at any time so we need to repeat until they survived
+		do {
+			do {
+				final Graphics g = this.strategy.getDrawGraphics();
+				try {
+					g.drawImage(this.bufferedImage, 0, 0, null);
+				} finally {
+					g.dispose();
+				}
+			} while (this.strategy.contentsRestored());
+			this.strategy.show();
+		} while (this.strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
 	}
 
 	@Override
@@ -229,11 +350,16 @@ public final class AWTGUIContext extends GUIContext {
 	@Override
 	public void setup() {
 		this.frame.setVisible(true);
+		if (this.activeCanvas != null) {
+			// A buffer strategy can only be created once the canvas is displayable
+			this.activeCanvas.createBufferStrategy(ACTIVE_RENDERING_BUFFERS);
+			this.strategy = this.activeCanvas.getBufferStrategy();
+		}
 	}
 
 	@Override
 	void appendScene(Scene s) {
-		this.s = s;
+		// The input events are delivered to the current scene by the game loop
 	}
 
 	@Override
@@ -241,14 +367,24 @@ public final class AWTGUIContext extends GUIContext {
 		return new Vec2(this.bufferedImage.getWidth(), this.bufferedImage.getHeight());
 	}
 
+	/**
+	 * This method stores the position of a mouse event relative to the canvas.
+	 * 
+	 * @param e The mouse event
+	 */
+	private void trackCursor(MouseEvent e) {
+		if (e.getComponent() == this.frame) {
+			// Events of the frame include the window decorations
+			final Insets windowInsets = this.frame.getInsets();
+			this.cursorLocation = new Vec2(e.getX() - windowInsets.left, e.getY() - windowInsets.top);
+		} else {
+			this.cursorLocation = new Vec2(e.getX(), e.getY());
+		}
+	}
+
 	@Override
 	public Vec2 getMouseCursorLocation() {
-		final Point mp = MouseInfo.getPointerInfo().getLocation();
-		if (mp == null)
-			return new Vec2(0, 0);
-		final Point fp = this.frame.getLocationOnScreen();
-		final Insets windowInsets = this.frame.getInsets();
-		return new Vec2((int) (mp.getX() - fp.getX() - windowInsets.left), (int) (mp.getY() - fp.getY() - windowInsets.top));
+		return this.cursorLocation;
 	}
 
 	/**
@@ -265,15 +401,9 @@ public final class AWTGUIContext extends GUIContext {
 
 		/**
 		 * Use this to create a tile adapted to AWT
-		 * @param file
+		 * @param bi The image of the tile
 		 */
-		private AWTTile(String file) {
-			BufferedImage bi = null;
-			try {
-				bi = ImageIO.read(new File(file));
-			} catch (IOException e) {
-				Application.crash(new RuntimeException("While loading the file " + file + " something went wrong.", e));
-			}
+		private AWTTile(BufferedImage bi) {
 			this.tileBi = bi;
 		}
 
@@ -288,9 +418,60 @@ public final class AWTGUIContext extends GUIContext {
 		}
 	}
 
+	/**
+	 * This method converts an image into the format of the screen so drawing it
+	 * doesn't require any conversion later on.
+	 * 
+	 * @param image The image to convert
+	 * @return The converted image
+	 */
+	private BufferedImage toCompatibleImage(BufferedImage image) {
+		GraphicsConfiguration gc = this.frame.getGraphicsConfiguration();
+		if (gc == null && !GraphicsEnvironment.isHeadless()) {
+			gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		}
+		if (gc == null) {
+			return image;
+		}
+		final BufferedImage compatible = gc.createCompatibleImage(image.getWidth(), image.getHeight(),
+				Transparency.TRANSLUCENT);
+		final Graphics2D g = compatible.createGraphics();
+		try {
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+		return compatible;
+	}
+
 	@Override
 	public Tile loadTile(String filePath) {
-		return new AWTTile(filePath);
+		BufferedImage bi = null;
+		try {
+			bi = this.imageCache.load(new File(filePath));
+		} catch (IOException e) {
+			Application.crash(new RuntimeException("While loading the file " + filePath + " something went wrong.", e));
+		}
+		final TileAtlas a = this.atlas;
+		if (a != null && bi != null) {
+			final Tile t = a.add(bi);
+			if (t != null) {
+				return t;
+			}
+		}
+		return new AWTTile(bi != null ? toCompatibleImage(bi) : null);
+	}
+
+	/**
+	 * Use this method in order to enable or disable the tile atlas. Tiles loaded while
+	 * it is enabled get packed into large int ARGB sheets and opaque ones are copied
+	 * straight into the pixels of the canvas. It only affects tiles loaded afterwards.
+	 * 
+	 * @param enabled True if the atlas should be used
+	 */
+	public void setTileAtlasEnabled(boolean enabled) {
+		this.atlas = enabled ? new TileAtlas() : null;
 	}
 
 }
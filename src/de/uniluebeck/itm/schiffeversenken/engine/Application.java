@@ -24,6 +24,24 @@ public final class Application {
 	 */
 	public static final int AVAIABLE_CPU_CORES = Runtime.getRuntime().availableProcessors();
 
+	/**
+	 * The duration of a single logic step in milliseconds. Scenes get updated in
+	 * steps of this size regardless of the frame rate.
+	 */
+	public static final int LOGIC_STEP_MILLIS = 10;
+
+	/**
+	 * The maximum number of logic steps performed before a frame gets drawn. This
+	 * keeps a slow machine from never drawing again.
+	 */
+	private static final int MAX_LOGIC_STEPS_PER_FRAME = 5;
+
+	/**
+	 * The remaining frame time in nanoseconds below which the loop spins instead of
+	 * sleeping, as sleeping is too coarse to hit the frame limit precisely
+	 */
+	private static final long SPIN_THRESHOLD_NANOS = 1000000L;
+
 	/**
 	 * The context for the GUI
 	 */
@@ -32,12 +50,12 @@ public final class Application {
 	/**
 	 * The current scene
 	 */
-	private static Scene currentScene = null;
+	private static volatile Scene currentScene = null;
 	
 	/**
 	 * This variable shows whether the application is running
 	 */
-	private static boolean running = true;
+	private static volatile boolean running = true;
 	
 	/**
 	 * This variable determines whether the number of frames per second is shown
@@ -45,40 +63,50 @@ public final class Application {
 	private static boolean showFPS = false;
 	
 	/**
-	 * The limit of frames per second
+	 * The limit of frames per second. A value below 1 disables the limit.
 	 */
 	private static int fpsLimit = 60;
 
 	/**
-	 * The main loop that handles the behavior of the application
+	 * The duration of the last frame in nanoseconds including the waiting time
+	 */
+	private static volatile long lastFrameNanos = 0;
+
+	/**
+	 * The number of frames that took longer than the frame limit allows
+	 */
+	private static volatile long frameOverruns = 0;
+
+	/**
+	 * The profiler measuring the phases of every frame
+	 */
+	private static final FrameProfiler profiler = new FrameProfiler();
+
+	/**
+	 * The simulated time in nanoseconds that wasn't covered by logic steps yet
+	 */
+	private static long unprocessedNanos = 0;
+
+	/**
+	 * The main loop that handles the behavior of the application. Scenes get
+	 * updated in fixed logic steps of {@link #LOGIC_STEP_MILLIS} while drawing
+	 * happens once per frame. The frame limit is met by sleeping until shortly
+	 * before the deadline and spinning for the rest.
 	 */
 	public static void mainLoop() {
-		long lastStartOfDrawing = System.currentTimeMillis() - 1;
+		long previousFrameStart = System.nanoTime();
+		long nextFrameDeadline = previousFrameStart;
 
 		while (isStillRunning()) {
 			try {
-				final long now = System.currentTimeMillis();
-				final Canvas c = context.getCanvas();
-				synchronized (currentScene) {
-					currentScene.update(now - lastStartOfDrawing);
-					currentScene.draw(c, context.getMouseCursorLocation());
-				}
-				if (showFPS) {
-					final double[] color = c.getColor();
-					c.setColor(0.7, 0.7, 0.7, 0.7);
-					final String fpsText = "FPS: " + Long.toString(1000 / (now - lastStartOfDrawing));
-					final Vec2 textDimms = c.getTextDimensions(fpsText);
-					c.fillRoundRect(10, 10, textDimms.getX() + 10, textDimms.getY() + 10, 5, 5);
-					c.setColor(0, 0, 0);
-					c.drawString(15, 15 + textDimms.getY(), fpsText);
-				}
-				context.performPaintOperation();
-				final long sleepTime = 1000 / fpsLimit - (System.currentTimeMillis() - now);
-				if (sleepTime < 1)
-					Thread.sleep(1);
-				else
-					Thread.sleep(sleepTime);
-				lastStartOfDrawing = now - 1;
+				final long frameStart = System.nanoTime();
+				lastFrameNanos = frameStart - previousFrameStart;
+				previousFrameStart = frameStart;
+				runFrame(lastFrameNanos);
+				final long sleepStart = System.nanoTime();
+				nextFrameDeadline = waitForNextFrame(nextFrameDeadline);
+				profiler.record(FrameProfiler.Phase.SLEEP, sleepStart);
+				profiler.endFrame();
 			} catch (Exception e) {
 				crash(e);
 			}
@@ -87,6 +115,116 @@ public final class Application {
 		log("Stopped.");
 	}
 
+	/**
+	 * Use this method in order to run a number of frames as fast as possible. Every
+	 * frame advances the logic by the given time regardless of how long it
+	 * actually took, so the outcome doesn't depend on the speed of the machine.
+	 * This is meant for contexts without a display. Unlike the main loop this
+	 * method doesn't destroy the context once it is done.
+	 * 
+	 * @param frames The number of frames to run
+	 * @param frameNanos The simulated duration of a single frame in nanoseconds
+	 */
+	public static void stepFrames(int frames, long frameNanos) {
+		for (int i = 0; i < frames && isStillRunning(); i++) {
+			try {
+				lastFrameNanos = frameNanos;
+				runFrame(frameNanos);
+				profiler.endFrame();
+			} catch (Exception e) {
+				crash(e);
+			}
+		}
+	}
+
+	/**
+	 * This method handles the pending input, performs the logic steps that are due
+	 * and draws a single frame.
+	 * 
+	 * @param elapsedNanos The time since the previous frame in nanoseconds
+	 */
+	private static void runFrame(long elapsedNanos) {
+		final long logicStepNanos = LOGIC_STEP_MILLIS * 1000000L;
+		unprocessedNanos = Math.min(unprocessedNanos + elapsedNanos, MAX_LOGIC_STEPS_PER_FRAME * logicStepNanos);
+
+		// Input gets handled on this thread so the scenes never see it in the middle of a frame
+		long phaseStart = System.nanoTime();
+		context.dispatchInput();
+		phaseStart = profiler.record(FrameProfiler.Phase.INPUT, phaseStart);
+
+		while (unprocessedNanos >= logicStepNanos) {
+			final Scene s = currentScene;
+			synchronized (s) {
+				s.update(LOGIC_STEP_MILLIS);
+			}
+			unprocessedNanos -= logicStepNanos;
+			if (s != currentScene) {
+				// The new scene starts with a clean slate
+				unprocessedNanos = 0;
+			}
+		}
+		phaseStart = profiler.record(FrameProfiler.Phase.UPDATE, phaseStart);
+
+		final Canvas c = context.getCanvas();
+		final Scene s = currentScene;
+		synchronized (s) {
+			s.draw(c, context.getMouseCursorLocation());
+		}
+		if (showFPS) {
+			drawFrameStatistics(c);
+		}
+		phaseStart = profiler.record(FrameProfiler.Phase.DRAW, phaseStart);
+		context.performPaintOperation();
+		profiler.record(FrameProfiler.Phase.PAINT, phaseStart);
+	}
+
+	/**
+	 * This method draws the frame rate, the number of overruns and the profiler
+	 * overlay onto the canvas.
+	 * 
+	 * @param c The canvas to draw on
+	 */
+	private static void drawFrameStatistics(Canvas c) {
+		final double[] color = c.getColor().clone();
+		final long frameNanos = Math.max(1, lastFrameNanos);
+		final String fpsText = "FPS: " + Long.toString(1000000000L / frameNanos) + " Overruns: " + frameOverruns;
+		final int limit = fpsLimit;
+		profiler.drawOverlay(c, 10, 10, fpsText, limit < 1 ? 0 : 1000000000L / limit);
+		c.setColor(color[0], color[1], color[2], color[3]);
+	}
+
+	/**
+	 * This method waits until the next frame is due. It sleeps while there is
+	 * plenty of time left and spins for the last moments. A frame that missed its
+	 * deadline is counted as an overrun and the schedule restarts from now
+	 * instead of rushing through the missed frames.
+	 * 
+	 * @param previousDeadline The deadline of the frame that was just drawn
+	 * @return The deadline of the next frame
+	 * @throws InterruptedException if the loop got interrupted while sleeping
+	 */
+	private static long waitForNextFrame(long previousDeadline) throws InterruptedException {
+		final int limit = fpsLimit;
+		if (limit < 1) {
+			return System.nanoTime();
+		}
+		final long deadline = previousDeadline + 1000000000L / limit;
+		long remaining = deadline - System.nanoTime();
+		if (remaining < 0) {
+			frameOverruns++;
+			return System.nanoTime();
+		}
+		while (remaining > SPIN_THRESHOLD_NANOS) {
+			Thread.sleep((remaining - SPIN_THRESHOLD_NANOS) / 1000000L,
+					(int) ((remaining - SPIN_THRESHOLD_NANOS) % 1000000L));
+			remaining = deadline - System.nanoTime();
+		}
+		while (System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		return deadline;
+	}
+
 	/**
 	 * Use this method to set up the application
 	 * @param c The GUIContext
@@ -174,8 +312,8 @@ public final class Application {
 	}
 
 	/**
-	 * Use this method to enable or disable the current FPS counter within the upper
-	 * right corner.
+	 * Use this method to enable or disable the current FPS counter and the frame
+	 * profiler overlay within the upper left corner.
 	 * 
 	 * @param showFPS true if the frame rate shall be rendered or otherwise false.
 	 */
@@ -201,7 +339,7 @@ public final class Application {
 	 * Use this method in order to limit the current frame rate. This may be useful
 	 * in scenarios where you don't need high refresh rates.
 	 * 
-	 * @param maxFPS the new fps limit to set.
+	 * @param maxFPS the new fps limit to set or a value below 1 in order to disable the limit.
 	 */
 	public static void setMaximumFPS(int maxFPS) {
 		fpsLimit = maxFPS;
@@ -216,6 +354,56 @@ public final class Application {
 		return fpsLimit;
 	}
 
+	/**
+	 * Use this method in order to get the duration of the last frame.
+	 * 
+	 * @return The duration in nanoseconds including the time spent waiting.
+	 */
+	public static long getLastFrameNanos() {
+		return lastFrameNanos;
+	}
+
+	/**
+	 * Use this method in order to get the scene that is currently shown.
+	 * 
+	 * @return The current scene.
+	 */
+	static Scene getCurrentScene() {
+		return currentScene;
+	}
+
+	/**
+	 * Use this method in order to get the time between capturing and handling the
+	 * last input event.
+	 * 
+	 * @return The latency in nanoseconds or 0 if there is no context.
+	 */
+	public static long getLastInputLatencyNanos() {
+		if (context == null) {
+			return 0;
+		}
+		return context.getLastInputLatencyNanos();
+	}
+
+	/**
+	 * Use this method in order to get the profiler measuring the phases of every frame.
+	 * 
+	 * @return The profiler.
+	 */
+	public static FrameProfiler getFrameProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Use this method in order to get the number of frames that took longer than the
+	 * current fps limit allows.
+	 * 
+	 * @return The number of overrun frames since the start of the application.
+	 */
+	public static long getFrameOverrunCount() {
+		return frameOverruns;
+	}
+
 	/**
 	 * Ask the gui context to load a tile for us.
 	 * @param fileName The file to load the tile from.
@@ -1,18 +1,19 @@
 package de.uniluebeck.itm.schiffeversenken.engine;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * This class holds all your assets.
+ * This class holds all your assets. It is safe to register and look up tiles from
+ * several threads at once.
  *
  * @author leondietrich
  */
 public class AssetRegistry {
 
     /**
-     * The HashMap mapping Strings to Tiles
+     * The map mapping Strings to Tiles. Tiles get registered by several loading threads at once.
      */
-	private static final HashMap<String, Tile> tileMap;
+	private static final ConcurrentHashMap<String, Tile> tileMap;
     
 	/**
 	 * A default tile used when the tile is missing
@@ -21,7 +22,7 @@ public class AssetRegistry {
 
 
     static {
-        tileMap = new HashMap<String, Tile>();
+        tileMap = new ConcurrentHashMap<String, Tile>();
         defaultMissingTile = Application.loadTile("assets/missing_tile.png");
         registerTile("unknown", defaultMissingTile);
     }
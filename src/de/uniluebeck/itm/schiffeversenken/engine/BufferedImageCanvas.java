@@ -3,11 +3,16 @@
  */
 package de.uniluebeck.itm.schiffeversenken.engine;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
 
 /**
  * This canvas is SWING/AWT compatible.
@@ -32,21 +37,59 @@ public final class BufferedImageCanvas extends Canvas {
 	 */
 	private double[] color;
 
+	/**
+	 * The pixels of the image if they can be written directly or null
+	 */
+	private int[] pixels;
+
+	/**
+	 * The number of pixels between the starts of two rows of the image
+	 */
+	private int pixelScanline;
+
+	/**
+	 * True if the image was checked for directly writable pixels
+	 */
+	private boolean pixelsChecked;
+
+	/**
+	 * True if clearing the image makes it transparent instead of filling it with the background color
+	 */
+	private final boolean transparent;
+
 	/**
 	 * Use this to create a new buffered image canvas
 	 * 
 	 * @param bufferedImage image with a buffer of image data
 	 */
 	public BufferedImageCanvas(@SuppressWarnings("exports") BufferedImage bufferedImage) {
+		this(bufferedImage, false);
+	}
+
+	/**
+	 * Use this to create a new buffered image canvas
+	 * 
+	 * @param bufferedImage image with a buffer of image data
+	 * @param transparent true if clearing the image should make it transparent
+	 */
+	private BufferedImageCanvas(BufferedImage bufferedImage, boolean transparent) {
 		super();
 		this.color = new double[4];
 		this.bi = bufferedImage;
+		this.transparent = transparent;
 		this.g = this.bi.createGraphics();
 		this.g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 	}
 
 	@Override
 	public void clear() {
+		if (this.transparent) {
+			final Composite previous = this.g.getComposite();
+			this.g.setComposite(AlphaComposite.Clear);
+			this.g.fillRect(0, 0, this.bi.getWidth(), this.bi.getHeight());
+			this.g.setComposite(previous);
+			return;
+		}
 		this.g.setBackground(new Color(15,10,90));
 		this.g.clearRect(0, 0, this.bi.getWidth(), this.bi.getHeight());
 	}
@@ -75,36 +118,36 @@ public final class BufferedImageCanvas extends Canvas {
 
 	@Override
 	public void drawRect(int x, int y, int width, int height) {
-		this.g.drawRect(this.getTranslationX() + x, this.getTranslationY() + y, width, height);
+		this.g.drawRect(x, y, width, height);
 	}
 
 	@Override
 	public void drawRoundRect(int x, int y, int width, int height, int arc_width, int arc_height) {
-		this.g.drawRoundRect(this.getTranslationX() + x, this.getTranslationY() + y, width, height, arc_width,
+		this.g.drawRoundRect(x, y, width, height, arc_width,
 				arc_height);
 	}
 
 	@Override
 	public void fillRect(int x, int y, int width, int height) {
-		this.g.fillRect(this.getTranslationX() + x, this.getTranslationY() + y, width, height);
+		this.g.fillRect(x, y, width, height);
 	}
 
 	@Override
 	public void fillRoundRect(int x, int y, int width, int height, int arc_width, int arc_height) {
-		this.g.fillRoundRect(this.getTranslationX() + x, this.getTranslationY() + y, width, height, arc_width,
+		this.g.fillRoundRect(x, y, width, height, arc_width,
 				arc_height);
 	}
 
 	@Override
 	public void drawLine(Vec2 p1, Vec2 p2) {
-		this.g.drawLine(this.getTranslationX() + p1.getX(), this.getTranslationY() + p1.getY(),
-				this.getTranslationX() + p2.getX(), this.getTranslationY() + p2.getY());
+		this.g.drawLine(p1.getX(), p1.getY(),
+				p2.getX(), p2.getY());
 	}
 
 	@Override
 	public void drawString(int x, int y, String text) {
 		if (text != null)
-			this.g.drawString(text, this.getTranslationX() + x, this.getTranslationY() + y);
+			this.g.drawString(text, x, y);
 	}
 
 	@Override
@@ -144,6 +187,87 @@ public final class BufferedImageCanvas extends Canvas {
 		return color;
 	}
 
+	@Override
+	public Canvas createCompatibleCanvas(int width, int height) {
+		final int type = this.bi.getType() == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_ARGB : this.bi.getType();
+		return new BufferedImageCanvas(new BufferedImage(width, height, type));
+	}
+
+	@Override
+	public Canvas createTranslucentCanvas(int width, int height) {
+		return new BufferedImageCanvas(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE), true);
+	}
+
+	@Override
+	public void drawCanvas(Canvas offscreen, int x, int y) {
+		if (!(offscreen instanceof BufferedImageCanvas)) {
+			throw new RuntimeException("The off-screen canvas isn't AWT compatible.");
+		}
+		renderBufferedImage(((BufferedImageCanvas) offscreen).bi, x, y);
+	}
+
+	/**
+	 * Platform specific method in order to copy opaque ARGB pixels straight into
+	 * the image, one row at a time. This only works as long as the image stores
+	 * its pixels as ints and nothing but a translation is applied to the canvas.
+	 * Java2D stops accelerating the image once its pixels got accessed this way.
+	 *
+	 * @param source The source pixels
+	 * @param offset The index of the upper left source pixel
+	 * @param scanline The number of source pixels between the starts of two rows
+	 * @param width The width of the copied area
+	 * @param height The height of the copied area
+	 * @param x The X coordinate
+	 * @param y The Y coordinate
+	 * @return False if the pixels couldn't be copied and need to be drawn differently
+	 */
+	boolean copyOpaquePixels(int[] source, int offset, int scanline, int width, int height, int x, int y) {
+		if (!this.pixelsChecked) {
+			this.pixelsChecked = true;
+			final int type = this.bi.getType();
+			if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB
+					|| type == BufferedImage.TYPE_INT_ARGB_PRE)
+					&& this.bi.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel
+					&& this.bi.getRaster().getSampleModelTranslateX() == 0
+					&& this.bi.getRaster().getSampleModelTranslateY() == 0) {
+				this.pixelScanline = ((SinglePixelPackedSampleModel) this.bi.getRaster().getSampleModel())
+						.getScanlineStride();
+				this.pixels = ((DataBufferInt) this.bi.getRaster().getDataBuffer()).getData();
+			}
+		}
+		final AffineTransform t = this.g.getTransform();
+		if (this.pixels == null || this.g.getClip() != null
+				|| (t.getType() & ~AffineTransform.TYPE_TRANSLATION) != 0
+				|| t.getTranslateX() != Math.rint(t.getTranslateX())
+				|| t.getTranslateY() != Math.rint(t.getTranslateY())) {
+			return false;
+		}
+		// Clip the copied area to the image
+		int targetX = x + (int) t.getTranslateX(), targetY = y + (int) t.getTranslateY();
+		int sourceOffset = offset, copiedWidth = width, copiedHeight = height;
+		if (targetX < 0) {
+			sourceOffset -= targetX;
+			copiedWidth += targetX;
+			targetX = 0;
+		}
+		if (targetY < 0) {
+			sourceOffset -= targetY * scanline;
+			copiedHeight += targetY;
+			targetY = 0;
+		}
+		copiedWidth = Math.min(copiedWidth, this.bi.getWidth() - targetX);
+		copiedHeight = Math.min(copiedHeight, this.bi.getHeight() - targetY);
+		if (copiedWidth <= 0 || copiedHeight <= 0) {
+			// The tile lies completely outside of the image, so there is nothing to draw
+			return true;
+		}
+		for (int row = 0; row < copiedHeight; row++) {
+			System.arraycopy(source, sourceOffset + row * scanline, this.pixels,
+					(targetY + row) * this.pixelScanline + targetX, copiedWidth);
+		}
+		return true;
+	}
+
 	/**
 	 * Platform specific method in order to render other buffered images at a given location.
 	 *
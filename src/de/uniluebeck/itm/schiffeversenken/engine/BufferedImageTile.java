@@ -0,0 +1,32 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * This class implements a tile that draws its own image onto an AWT compatible canvas.
+ */
+final class BufferedImageTile extends Tile {
+
+	/**
+	 * The image of the tile
+	 */
+	private final BufferedImage image;
+
+	/**
+	 * Use this to create a tile from an image
+	 *
+	 * @param image The image of the tile
+	 */
+	BufferedImageTile(BufferedImage image) {
+		this.image = image;
+	}
+
+	@Override
+	public void renderAt(Canvas c, Vec2 position) {
+		if (!(c instanceof BufferedImageCanvas)) {
+			throw new RuntimeException("Something went wrong: This is an AWT Tile but the " +
+					"canvas doesn't seam to be AWT compatible.");
+		}
+		((BufferedImageCanvas) c).renderBufferedImage(this.image, position.getX(), position.getY());
+	}
+}
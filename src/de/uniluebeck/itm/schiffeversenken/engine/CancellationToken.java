@@ -0,0 +1,43 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Use a cancellation token in order to tell dispatched work that its result
+ * isn't needed anymore. Work checks the token by itself, nothing gets
+ * interrupted.
+ */
+public final class CancellationToken {
+
+	/**
+	 * This variable is true once the token got cancelled
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Call this method in order to cancel all work using this token. It can't be undone.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * Use this method in order to check if the token got cancelled.
+	 *
+	 * @return True if the work should stop
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Use this method in order to abort work once the token got cancelled.
+	 *
+	 * @throws CancellationException if the token got cancelled
+	 */
+	public void throwIfCancelled() {
+		if (this.cancelled) {
+			throw new CancellationException("The work got cancelled");
+		}
+	}
+}
@@ -186,4 +186,42 @@ public abstract class Canvas {
 	 */
 	public abstract Vec2 getTextDimensions(String text);
 
+	/**
+	 * Use this method in order to create an off-screen canvas which can later be
+	 * drawn onto this one using {@link #drawCanvas(Canvas, int, int)}. This way
+	 * content that rarely changes only needs to be drawn once.
+	 * 
+	 * @param width  The width of the off-screen canvas
+	 * @param height The height of the off-screen canvas
+	 * @return The new canvas or null if this canvas doesn't support off-screen canvases.
+	 */
+	public Canvas createCompatibleCanvas(int width, int height) {
+		return null;
+	}
+
+	/**
+	 * Use this method in order to create an off-screen canvas with a transparent
+	 * background. Clearing it makes it transparent again, so only the drawn
+	 * content covers whatever it gets drawn onto later on.
+	 * 
+	 * @param width  The width of the off-screen canvas
+	 * @param height The height of the off-screen canvas
+	 * @return The new canvas or null if this canvas doesn't support off-screen canvases.
+	 */
+	public Canvas createTranslucentCanvas(int width, int height) {
+		return null;
+	}
+
+	/**
+	 * Use this method in order to draw the content of an off-screen canvas at the
+	 * given location.
+	 * 
+	 * @param offscreen The canvas created by {@link #createCompatibleCanvas(int, int)}
+	 * @param x         The X coordinate to draw the canvas at
+	 * @param y         The Y coordinate to draw the canvas at
+	 */
+	public void drawCanvas(Canvas offscreen, int x, int y) {
+		throw new RuntimeException("This canvas doesn't support off-screen canvases.");
+	}
+
 }
@@ -3,8 +3,18 @@
  */
 package de.uniluebeck.itm.schiffeversenken.engine;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Instantiate this class in order to implement your user interaction logic.
@@ -14,20 +24,74 @@ import java.util.LinkedList;
  */
 public abstract class Controller<Model> {
 
+	/**
+	 * The priority of work that should be done before anything else
+	 */
+	public static final int PRIORITY_HIGH = 10;
+
+	/**
+	 * The priority of work dispatched without a priority
+	 */
+	public static final int PRIORITY_NORMAL = 0;
+
+	/**
+	 * The priority of work that may wait until everything else is done
+	 */
+	public static final int PRIORITY_LOW = -10;
+
+	/**
+	 * The worker threads shared by all controllers. There is one per core and they
+	 * live as long as the application, so neither scene switches nor bursts of
+	 * work create threads. Waiting work is ordered by its priority.
+	 */
+	private static final ThreadPoolExecutor WORKERS = new ThreadPoolExecutor(Application.AVAIABLE_CPU_CORES,
+			Application.AVAIABLE_CPU_CORES, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(),
+			new ThreadFactory() {
+
+				/**
+				 * The number of created worker threads
+				 */
+				private final AtomicInteger createdThreads = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable r) {
+					final Thread t = new Thread(r, "Controller worker #" + this.createdThreads.getAndIncrement());
+					// The workers must not keep the application alive
+					t.setDaemon(true);
+					return t;
+				}
+			});
+
+	/**
+	 * The number of dispatched pieces of work. It keeps work of the same priority in order.
+	 */
+	private static final AtomicLong dispatchedWork = new AtomicLong();
+
 	/**
 	 * The model
 	 */
 	private final Model m;
 	
 	/**
-	 * The list of runnables yet to be run
+	 * The work yet to be handed over to the workers. It also serves as the lock
+	 * notified whenever a piece of work finished.
 	 */
-	private final LinkedList<Runnable> waitingWork;
+	private final ArrayDeque<Work<?>> waitingWork;
 	
 	/**
-	 * The list of active worker threads
+	 * The number of dispatched pieces of work that didn't finish yet
+	 */
+	private final AtomicInteger inFlight;
+
+	/**
+	 * The dispatched pieces of work that didn't finish yet, guarded by waitingWork
+	 */
+	private final Set<Work<?>> outstandingWork;
+
+	/**
+	 * The token cancelling all work dispatched so far. It gets replaced once it was cancelled.
 	 */
-	private final ArrayList<Thread> activeWorkerThreads;
+	private volatile CancellationToken controllerToken;
 
 	/**
 	 * This constructor doesn't do anything fancy beside initializing the model.
@@ -36,8 +100,10 @@ public abstract class Controller<Model> {
 	 */
 	public Controller(Model m) {
 		this.m = m;
-		this.waitingWork = new LinkedList<Runnable>();
-		this.activeWorkerThreads = new ArrayList<Thread>(Application.AVAIABLE_CPU_CORES);
+		this.waitingWork = new ArrayDeque<Work<?>>();
+		this.inFlight = new AtomicInteger();
+		this.outstandingWork = new HashSet<Work<?>>();
+		this.controllerToken = new CancellationToken();
 	}
 
 	/**
@@ -85,70 +151,239 @@ public abstract class Controller<Model> {
 	 * @param r The runnable that should be enqueued.
 	 */
 	public void dispatchWork(Runnable r) {
+		dispatchWork(r, PRIORITY_NORMAL, null);
+	}
+
+	/**
+	 * Use this method in order to enqueue work to be processed later on. The work
+	 * gets skipped if it is cancelled before it started. Long running work should
+	 * check the token every now and then, as cancelling doesn't interrupt it.
+	 * 
+	 * @param r The runnable that should be enqueued.
+	 * @param priority The priority of the work, for example {@link #PRIORITY_HIGH}
+	 * @param token A token that can cancel the work or null
+	 * @return A future that completes once the work is done or gets cancelled with it
+	 */
+	public final CompletableFuture<Void> dispatchWork(Runnable r, int priority, CancellationToken token) {
+		return dispatchWork(() -> {
+			r.run();
+			return null;
+		}, priority, token);
+	}
+
+	/**
+	 * Use this method in order to enqueue work computing a result. The work gets
+	 * skipped if it is cancelled before it started. Long running work should check
+	 * the token every now and then, as cancelling doesn't interrupt it.
+	 * 
+	 * @param <T> The type of the result
+	 * @param c The callable that should be enqueued.
+	 * @param priority The priority of the work, for example {@link #PRIORITY_HIGH}
+	 * @param token A token that can cancel the work or null
+	 * @return A future that completes with the result or gets cancelled with the work
+	 */
+	public final <T> CompletableFuture<T> dispatchWork(Callable<T> c, int priority, CancellationToken token) {
+		final Work<T> w = new Work<T>(c, priority, token, this.controllerToken);
 		synchronized (this.waitingWork) {
-			this.waitingWork.add(r);
+			this.inFlight.incrementAndGet();
+			this.outstandingWork.add(w);
+			this.waitingWork.add(w);
 		}
+		return w.future;
 	}
 
 	/**
-	 * This method starts the processing of the dispatched work queue. It is safe to
-	 * call it in fast cycles as it wont create any threads as long as there are
-	 * enough.
+	 * This method hands the dispatched work over to the shared worker threads. It
+	 * is safe to call it in fast cycles as it wont create any threads.
 	 */
 	public void startWorkStack() {
-		for (int i = 0; i < waitingWork.size() - activeWorkerThreads.size()
-				&& activeWorkerThreads.size() < Application.AVAIABLE_CPU_CORES; i++) {
-			// Spawning additional worker Threads
-			final Thread t = new Thread(new Runnable() {
+		synchronized (this.waitingWork) {
+			Work<?> w;
+			while ((w = this.waitingWork.poll()) != null) {
+				WORKERS.execute(w);
+			}
+		}
+	}
 
-				@Override
-				public void run() {
-					final Thread t = Thread.currentThread();
-					// Perform work while there is some
-					while (waitingWork.size() > 0) {
-						final Runnable r;
-						synchronized (waitingWork) {
-							r = waitingWork.remove();
-						}
-						try {
-							r.run();
-						} catch (StackOverflowError e) {
-							Application.crash(new RuntimeException(e));
-						} catch (Exception e) {
-							Application.crash(e);
-						}
-					}
-					activeWorkerThreads.remove(t);
-				}
-			});
-			t.setName("Worker thread #" + activeWorkerThreads.size() + " of controller " + this.toString());
-			activeWorkerThreads.add(t);
-			t.start();
+	/**
+	 * Use this method in order to get the token cancelling all work dispatched from
+	 * now on until {@link #cancelAllWork()} gets called.
+	 *
+	 * @return The token
+	 */
+	public final CancellationToken getCancellationToken() {
+		return this.controllerToken;
+	}
+
+	/**
+	 * Use this method in order to cancel all outstanding work. The futures of all
+	 * of it get cancelled right away, so nothing chained to them runs anymore, and
+	 * waiting work gets dropped. Work that is already running isn't interrupted
+	 * though: its body keeps going until it checks its token or returns and its
+	 * result gets discarded. Work dispatched afterwards isn't affected.
+	 */
+	public final void cancelAllWork() {
+		synchronized (this.waitingWork) {
+			final CancellationToken cancelled = this.controllerToken;
+			this.controllerToken = new CancellationToken();
+			cancelled.cancel();
+			for (Work<?> w : this.outstandingWork) {
+				w.future.cancel(false);
+			}
+			Work<?> w;
+			while ((w = this.waitingWork.poll()) != null) {
+				this.outstandingWork.remove(w);
+				this.inFlight.decrementAndGet();
+			}
+			this.waitingWork.notifyAll();
 		}
 	}
 
 	/**
-	 * Use this method in order to check if the controller has an active (full) work queue.
-	 * Keep in mind that this method will also return true if there is no work within the queue but threads are still
-	 * processing older tasks.
+	 * This method runs a single piece of dispatched work on a worker thread.
+	 *
+	 * @param <T> The type of the result
+	 * @param w The work to run
+	 */
+	private <T> void runWork(Work<T> w) {
+		try {
+			if (w.isCancelled()) {
+				w.future.cancel(false);
+				return;
+			}
+			final T result = w.task.call();
+			if (w.isCancelled()) {
+				w.future.cancel(false);
+			} else {
+				w.future.complete(result);
+			}
+		} catch (CancellationException e) {
+			w.future.cancel(false);
+		} catch (Throwable e) {
+			// Errors need to complete the future as well, otherwise waiting threads would hang
+			w.future.completeExceptionally(e);
+			Application.crash(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+		} finally {
+			synchronized (this.waitingWork) {
+				this.outstandingWork.remove(w);
+				this.inFlight.decrementAndGet();
+				this.waitingWork.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Use this method in order to check if the controller has unfinished work.
+	 * This includes work that was dispatched but not started yet as well as work
+	 * that is currently processed.
 	 *
 	 * @return True if there is still unprocessed work to do.
 	 */
 	public final boolean hasWork() {
-		return (!this.waitingWork.isEmpty()) || (!this.activeWorkerThreads.isEmpty());
+		return this.inFlight.get() > 0;
+	}
+
+	/**
+	 * Use this method in order to wait until all dispatched work is done. It must
+	 * not be called by the work of this controller.
+	 *
+	 * @throws InterruptedException if the thread got interrupted while waiting
+	 */
+	public final void awaitWork() throws InterruptedException {
+		startWorkStack();
+		synchronized (this.waitingWork) {
+			while (this.inFlight.get() > 0) {
+				this.waitingWork.wait();
+			}
+		}
 	}
 
 	/**
 	 * This method gets called when the scene gets detached. Override it in order to
-	 * stop your interfacing logic. But don't forget to call your super():
+	 * stop your interfacing logic. But don't forget to call your super(): It
+	 * cancels all outstanding work and returns right away, so a scene switch never
+	 * waits for a long computation.
 	 * 
 	 * @throws InterruptedException
 	 */
 	public void stop() throws InterruptedException {
-		startWorkStack();
-		for (Thread t : this.activeWorkerThreads) {
-			if(!t.equals(Thread.currentThread()))
-				t.join();
+		cancelAllWork();
+	}
+
+	/**
+	 * This class represents a piece of dispatched work.
+	 *
+	 * @param <T> The type of the result
+	 */
+	private final class Work<T> implements Runnable, Comparable<Work<?>> {
+
+		/**
+		 * The work to do
+		 */
+		private final Callable<T> task;
+
+		/**
+		 * The priority of the work
+		 */
+		private final int priority;
+
+		/**
+		 * The number of the work in dispatch order
+		 */
+		private final long sequence;
+
+		/**
+		 * The token passed on dispatch or null
+		 */
+		private final CancellationToken token;
+
+		/**
+		 * The token of the controller at the time of dispatch
+		 */
+		private final CancellationToken controllerToken;
+
+		/**
+		 * The future of the result
+		 */
+		private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+		/**
+		 * Construct a new piece of work
+		 *
+		 * @param task The work to do
+		 * @param priority The priority of the work
+		 * @param token The token passed on dispatch or null
+		 * @param controllerToken The token of the controller at the time of dispatch
+		 */
+		private Work(Callable<T> task, int priority, CancellationToken token, CancellationToken controllerToken) {
+			this.task = task;
+			this.priority = priority;
+			this.sequence = dispatchedWork.getAndIncrement();
+			this.token = token;
+			this.controllerToken = controllerToken;
+		}
+
+		/**
+		 * Use this method in order to check if the work got cancelled in any way.
+		 *
+		 * @return True if the result isn't wanted anymore
+		 */
+		private boolean isCancelled() {
+			return this.future.isCancelled() || this.controllerToken.isCancelled()
+					|| (this.token != null && this.token.isCancelled());
+		}
+
+		@Override
+		public void run() {
+			runWork(this);
+		}
+
+		@Override
+		public int compareTo(Work<?> other) {
+			if (this.priority != other.priority) {
+				return Integer.compare(other.priority, this.priority);
+			}
+			return Long.compare(this.sequence, other.sequence);
 		}
 	}
 
@@ -0,0 +1,165 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import javax.imageio.ImageIO;
+
+/**
+ * DecodedImageCache
+ *
+ * This class stores decoded images as raw ARGB pixels on disk so later starts
+ * don't need to decode the PNG files again. A cached image gets memory mapped
+ * and copied into a new image in one go. An entry is only used as long as
+ * the size and modification time of its source file didn't change.
+ */
+final class DecodedImageCache {
+
+	/**
+	 * Use this system property in order to choose the cache directory
+	 */
+	static final String DIRECTORY_PROPERTY = "schiffeversenken.assetcache";
+
+	/**
+	 * The first bytes of every cache file ("SVAC")
+	 */
+	private static final int MAGIC = 0x53564143;
+
+	/**
+	 * The version of the file layout
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes: magic, version, source length, source
+	 * modification time, width and height
+	 */
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+
+	/**
+	 * The directory containing the cache files or null if caching is disabled
+	 */
+	private final File directory;
+
+	/**
+	 * Construct a new cache using the directory configured by
+	 * {@link #DIRECTORY_PROPERTY} or a directory within the temporary files.
+	 */
+	DecodedImageCache() {
+		final String configured = System.getProperty(DIRECTORY_PROPERTY);
+		final File dir = configured != null ? new File(configured)
+				: new File(System.getProperty("java.io.tmpdir"), "schiffeversenken-asset-cache");
+		if (dir.isDirectory() || dir.mkdirs()) {
+			this.directory = dir;
+		} else {
+			Application.log("Warning: unable to create the asset cache at " + dir + ". Assets won't be cached.");
+			this.directory = null;
+		}
+	}
+
+	/**
+	 * Use this method in order to load an image file. The cached pixels are used if
+	 * possible, otherwise the file gets decoded and cached for the next time.
+	 *
+	 * @param source The image file
+	 * @return The image
+	 * @throws IOException if the file couldn't be decoded
+	 */
+	BufferedImage load(File source) throws IOException {
+		BufferedImage image = read(source);
+		if (image == null) {
+			image = ImageIO.read(source);
+			if (image == null) {
+				throw new IOException("There is no decoder for this kind of image.");
+			}
+			write(source, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Use this method in order to load the cached pixels of an image file.
+	 *
+	 * @param source The image file
+	 * @return The image of type TYPE_INT_ARGB or null if there is no valid cache entry
+	 */
+	BufferedImage read(File source) {
+		if (this.directory == null) {
+			return null;
+		}
+		final File entry = entryFor(source);
+		if (!entry.isFile()) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(entry.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE) {
+				return null;
+			}
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != source.length()
+					|| buffer.getLong() != source.lastModified()) {
+				return null;
+			}
+			final int width = buffer.getInt(), height = buffer.getInt();
+			if (width <= 0 || height <= 0 || buffer.remaining() != (long) width * height * 4) {
+				return null;
+			}
+			final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			buffer.asIntBuffer().get(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+			return image;
+		} catch (IOException e) {
+			Application.log("Warning: unable to read the cached asset " + entry + ": " + e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Use this method in order to store the pixels of a decoded image file. A
+	 * failure only gets logged as the cache is optional.
+	 *
+	 * @param source The image file
+	 * @param image The decoded image
+	 */
+	void write(File source, BufferedImage image) {
+		if (this.directory == null) {
+			return;
+		}
+		final int width = image.getWidth(), height = image.getHeight();
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + width * height * 4);
+		buffer.putInt(MAGIC).putInt(VERSION).putLong(source.length()).putLong(source.lastModified())
+				.putInt(width).putInt(height);
+		buffer.asIntBuffer().put(image.getRGB(0, 0, width, height, null, 0, width));
+		final Path entry = entryFor(source).toPath();
+		try {
+			// Other loaders never see a partially written entry as it gets moved in place at once
+			final Path temporary = Files.createTempFile(this.directory.toPath(), "asset", ".tmp");
+			try {
+				Files.write(temporary, buffer.array());
+				Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temporary);
+			}
+		} catch (IOException e) {
+			Application.log("Warning: unable to cache the asset " + source + ": " + e.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * This method computes the cache file of an image file.
+	 *
+	 * @param source The image file
+	 * @return The cache file
+	 */
+	private File entryFor(File source) {
+		return new File(this.directory, source.getPath().replaceAll("[^A-Za-z0-9.-]", "_") + ".argb");
+	}
+}
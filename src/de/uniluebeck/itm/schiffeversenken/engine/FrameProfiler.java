@@ -0,0 +1,325 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.util.Arrays;
+
+/**
+ * FrameProfiler
+ *
+ * This class measures how long the phases of the recent frames took. The
+ * durations are kept in preallocated ring buffers holding the last
+ * {@link #WINDOW} frames, so recording a frame doesn't allocate anything.
+ * The game loop records the phases while any thread may query the
+ * percentiles. The numbers can also be drawn as a small overlay.
+ */
+public final class FrameProfiler {
+
+	/**
+	 * The phases of a frame
+	 */
+	public enum Phase {
+		/**
+		 * Delivering the queued input events
+		 */
+		INPUT("input", 0.9, 0.9, 0.2),
+		/**
+		 * The logic steps of the scene
+		 */
+		UPDATE("update", 0.2, 0.8, 0.2),
+		/**
+		 * Drawing the scene onto the canvas
+		 */
+		DRAW("draw", 0.3, 0.5, 1),
+		/**
+		 * Handing the frame over to the GUI context
+		 */
+		PAINT("paint", 1, 0.4, 0.2),
+		/**
+		 * Waiting for the next frame to be due
+		 */
+		SLEEP("sleep", 0.6, 0.6, 0.6);
+
+		/**
+		 * The name shown within the overlay
+		 */
+		private final String label;
+
+		/**
+		 * The color of the phase within the graph
+		 */
+		private final double red, green, blue;
+
+		/**
+		 * Construct a new phase
+		 *
+		 * @param label The name shown within the overlay
+		 * @param red The red part of the color of the phase
+		 * @param green The green part of the color of the phase
+		 * @param blue The blue part of the color of the phase
+		 */
+		Phase(String label, double red, double green, double blue) {
+			this.label = label;
+			this.red = red;
+			this.green = green;
+			this.blue = blue;
+		}
+	}
+
+	/**
+	 * The number of frames the statistics are computed of
+	 */
+	public static final int WINDOW = 240;
+
+	/**
+	 * The number of frames shown within the graph of the overlay
+	 */
+	private static final int GRAPH_FRAMES = 120;
+
+	/**
+	 * The width of a single frame within the graph in pixels
+	 */
+	private static final int GRAPH_BAR_WIDTH = 2;
+
+	/**
+	 * The height of the graph in pixels
+	 */
+	private static final int GRAPH_HEIGHT = 60;
+
+	/**
+	 * The frame time shown at the top of the graph in nanoseconds
+	 */
+	private static final long GRAPH_MAXIMUM_NANOS = 40000000L;
+
+	/**
+	 * All phases in order
+	 */
+	private static final Phase[] PHASES = Phase.values();
+
+	/**
+	 * The durations of every phase of the last frames in nanoseconds, indexed by [phase][frame]
+	 */
+	private final long[][] samples = new long[PHASES.length][WINDOW];
+
+	/**
+	 * The durations of the last frames in nanoseconds
+	 */
+	private final long[] frameSamples = new long[WINDOW];
+
+	/**
+	 * The durations of the phases of the frame that is currently recorded. Only the game loop touches it.
+	 */
+	private final long[] current = new long[PHASES.length];
+
+	/**
+	 * The array the samples get sorted in in order to compute percentiles
+	 */
+	private final long[] scratch = new long[WINDOW];
+
+	/**
+	 * The index the next frame gets stored at
+	 */
+	private int next = 0;
+
+	/**
+	 * The number of stored frames
+	 */
+	private int count = 0;
+
+	/**
+	 * Use this method in order to add the time since the given start to a phase of
+	 * the current frame. It must only be called by the game loop.
+	 *
+	 * @param phase The phase
+	 * @param start The start of the phase as returned by {@link System#nanoTime()}
+	 * @return The current time, which is the start of the next phase
+	 */
+	public long record(Phase phase, long start) {
+		final long now = System.nanoTime();
+		this.current[phase.ordinal()] += now - start;
+		return now;
+	}
+
+	/**
+	 * Use this method in order to store the current frame and start the next one.
+	 * It must only be called by the game loop.
+	 */
+	public synchronized void endFrame() {
+		long total = 0;
+		for (int i = 0; i < PHASES.length; i++) {
+			this.samples[i][this.next] = this.current[i];
+			total += this.current[i];
+			this.current[i] = 0;
+		}
+		this.frameSamples[this.next] = total;
+		this.next = (this.next + 1) % WINDOW;
+		this.count = Math.min(this.count + 1, WINDOW);
+	}
+
+	/**
+	 * Use this method in order to forget all recorded frames.
+	 */
+	public synchronized void reset() {
+		this.next = 0;
+		this.count = 0;
+	}
+
+	/**
+	 * Use this method in order to get the number of frames the statistics are computed of.
+	 *
+	 * @return The number of frames, at most {@link #WINDOW}
+	 */
+	public synchronized int getSampleCount() {
+		return this.count;
+	}
+
+	/**
+	 * Use this method in order to get a percentile of the duration of a phase.
+	 *
+	 * @param phase The phase
+	 * @param percent The percentile, for example 50, 95 or 99
+	 * @return The duration in nanoseconds or 0 if no frame was recorded yet
+	 */
+	public synchronized long getPercentileNanos(Phase phase, double percent) {
+		return percentile(this.samples[phase.ordinal()], percent);
+	}
+
+	/**
+	 * Use this method in order to get the longest duration of a phase.
+	 *
+	 * @param phase The phase
+	 * @return The duration in nanoseconds or 0 if no frame was recorded yet
+	 */
+	public synchronized long getMaximumNanos(Phase phase) {
+		return maximum(this.samples[phase.ordinal()]);
+	}
+
+	/**
+	 * Use this method in order to get the duration of a phase within the last recorded frame.
+	 *
+	 * @param phase The phase
+	 * @return The duration in nanoseconds or 0 if no frame was recorded yet
+	 */
+	public synchronized long getLastNanos(Phase phase) {
+		return this.count == 0 ? 0 : this.samples[phase.ordinal()][(this.next + WINDOW - 1) % WINDOW];
+	}
+
+	/**
+	 * Use this method in order to get a percentile of the duration of whole frames.
+	 *
+	 * @param percent The percentile, for example 50, 95 or 99
+	 * @return The duration in nanoseconds or 0 if no frame was recorded yet
+	 */
+	public synchronized long getFramePercentileNanos(double percent) {
+		return percentile(this.frameSamples, percent);
+	}
+
+	/**
+	 * Use this method in order to get the longest duration of a whole frame.
+	 *
+	 * @return The duration in nanoseconds or 0 if no frame was recorded yet
+	 */
+	public synchronized long getFrameMaximumNanos() {
+		return maximum(this.frameSamples);
+	}
+
+	/**
+	 * This method computes a percentile of the stored samples of a ring buffer.
+	 *
+	 * @param values The ring buffer
+	 * @param percent The percentile
+	 * @return The value or 0 if there are no samples
+	 */
+	private long percentile(long[] values, double percent) {
+		if (this.count == 0) {
+			return 0;
+		}
+		// While the buffer isn't full yet the samples occupy its beginning
+		System.arraycopy(values, 0, this.scratch, 0, this.count);
+		Arrays.sort(this.scratch, 0, this.count);
+		final int index = (int) Math.ceil(percent / 100.0 * this.count) - 1;
+		return this.scratch[Math.max(0, Math.min(this.count - 1, index))];
+	}
+
+	/**
+	 * This method finds the highest stored sample of a ring buffer.
+	 *
+	 * @param values The ring buffer
+	 * @return The value or 0 if there are no samples
+	 */
+	private long maximum(long[] values) {
+		long max = 0;
+		for (int i = 0; i < this.count; i++) {
+			max = Math.max(max, values[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Use this method in order to draw a graph of the last frames and the
+	 * percentiles of every phase.
+	 *
+	 * @param c The canvas to draw on
+	 * @param x The X coordinate of the upper left corner
+	 * @param y The Y coordinate of the upper left corner
+	 * @param headline The text shown above the graph
+	 * @param targetFrameNanos The frame time to mark within the graph or a value below 1
+	 */
+	public synchronized void drawOverlay(Canvas c, int x, int y, String headline, long targetFrameNanos) {
+		final int lineHeight = c.getTextDimensions(headline).getY();
+		final int graphWidth = GRAPH_FRAMES * GRAPH_BAR_WIDTH;
+		final int width = graphWidth + 10;
+		final int height = lineHeight * (PHASES.length + 2) + GRAPH_HEIGHT + 20;
+		c.setColor(0.1, 0.1, 0.1, 0.75);
+		c.fillRoundRect(x, y, width, height, 5, 5);
+
+		c.setColor(0.9, 0.9, 0.9);
+		int textY = y + 5 + lineHeight;
+		c.drawString(x + 5, textY, headline);
+
+		// Stack the phases of every frame on top of each other, the newest frame is on the right
+		final int graphTop = textY + 5, graphBottom = graphTop + GRAPH_HEIGHT;
+		final int shownFrames = Math.min(this.count, GRAPH_FRAMES);
+		for (int p = 0; p < PHASES.length; p++) {
+			c.setColor(PHASES[p].red, PHASES[p].green, PHASES[p].blue);
+			for (int f = 0; f < shownFrames; f++) {
+				final int index = (this.next + WINDOW - shownFrames + f) % WINDOW;
+				long below = 0;
+				for (int q = 0; q < p; q++) {
+					below += this.samples[q][index];
+				}
+				final int bottom = graphBottom - toGraphHeight(below);
+				final int top = graphBottom - toGraphHeight(below + this.samples[p][index]);
+				if (bottom > top) {
+					c.fillRect(x + 5 + (GRAPH_FRAMES - shownFrames + f) * GRAPH_BAR_WIDTH, top, GRAPH_BAR_WIDTH,
+							bottom - top);
+				}
+			}
+		}
+		if (targetFrameNanos > 0 && targetFrameNanos < GRAPH_MAXIMUM_NANOS) {
+			final int targetY = graphBottom - toGraphHeight(targetFrameNanos);
+			c.setColor(1, 1, 1, 0.6);
+			c.drawLine(new Vec2(x + 5, targetY), new Vec2(x + 5 + graphWidth, targetY));
+		}
+
+		textY = graphBottom + lineHeight;
+		c.setColor(0.9, 0.9, 0.9);
+		c.drawString(x + 5, textY, String.format("%-7s %6s %6s %6s %6s ms", "", "p50", "p95", "p99", "max"));
+		for (Phase phase : PHASES) {
+			textY += lineHeight;
+			c.setColor(phase.red, phase.green, phase.blue);
+			final long[] values = this.samples[phase.ordinal()];
+			c.drawString(x + 5, textY, String.format("%-7s %6.2f %6.2f %6.2f %6.2f", phase.label,
+					percentile(values, 50) / 1e6, percentile(values, 95) / 1e6, percentile(values, 99) / 1e6,
+					maximum(values) / 1e6));
+		}
+	}
+
+	/**
+	 * This method converts a duration into a height within the graph.
+	 *
+	 * @param nanos The duration in nanoseconds
+	 * @return The height in pixels
+	 */
+	private static int toGraphHeight(long nanos) {
+		return (int) (Math.min(nanos, GRAPH_MAXIMUM_NANOS) * GRAPH_HEIGHT / GRAPH_MAXIMUM_NANOS);
+	}
+}
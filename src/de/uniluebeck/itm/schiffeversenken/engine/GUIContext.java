@@ -15,6 +15,16 @@ public abstract class GUIContext {
 	 */
 	private boolean inputDebuggingEnabled = false;
 
+	/**
+	 * The number of input events that may be pending between two frames
+	 */
+	private static final int INPUT_QUEUE_CAPACITY = 256;
+
+	/**
+	 * The queue carrying the input events from the windowing system to the game loop
+	 */
+	private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY);
+
 	/**
 	 * Construct a new GUI context
 	 * 
@@ -104,4 +114,78 @@ public abstract class GUIContext {
 	 */
 	public abstract Vec2 getMouseCursorLocation();
 
+	/**
+	 * Call this method in order to pass a key press to the current scene. The event
+	 * is delivered by the game loop at the start of the next frame, so this method
+	 * may be called from any thread.
+	 * 
+	 * @param key   The pressed key
+	 * @param shift Is shift pressed?
+	 * @param alt   Is alt pressed?
+	 * @param ctrl  Is ctrl pressed?
+	 * @param down  Is the down arrow key pressed?
+	 * @param up    Is the up arrow key pressed?
+	 * @param left  Is the left arrow key pressed?
+	 * @param right Is the right arrow key pressed?
+	 */
+	protected final void postKeyPressed(char key, boolean shift, boolean alt, boolean ctrl, boolean down,
+			boolean up, boolean left, boolean right) {
+		if (!this.inputQueue.postKeyPressed(key, shift, alt, ctrl, down, up, left, right)) {
+			Application.log("INPUT: Dropped key event as the input queue is full.");
+		}
+	}
+
+	/**
+	 * Call this method in order to pass a mouse click to the current scene. The
+	 * event is delivered by the game loop at the start of the next frame, so this
+	 * method may be called from any thread.
+	 * 
+	 * @param position The position of the click relative to the canvas
+	 */
+	protected final void postClick(Vec2 position) {
+		if (!this.inputQueue.postClick(position.getX(), position.getY())) {
+			Application.log("INPUT: Dropped mouse event as the input queue is full.");
+		}
+	}
+
+	/**
+	 * This method delivers all pending input events to the current scene. It must
+	 * only be called by the game loop.
+	 * 
+	 * @return The number of delivered events
+	 */
+	int dispatchInput() {
+		return this.inputQueue.dispatch();
+	}
+
+	/**
+	 * Use this method in order to get the time between capturing and delivering the
+	 * last input event.
+	 * 
+	 * @return The latency in nanoseconds.
+	 */
+	public long getLastInputLatencyNanos() {
+		return this.inputQueue.getLastLatencyNanos();
+	}
+
+	/**
+	 * Use this method in order to get the highest time between capturing and
+	 * delivering an input event.
+	 * 
+	 * @return The latency in nanoseconds.
+	 */
+	public long getMaximumInputLatencyNanos() {
+		return this.inputQueue.getMaximumLatencyNanos();
+	}
+
+	/**
+	 * Use this method in order to get the number of input events that got lost
+	 * because the game loop didn't keep up.
+	 * 
+	 * @return The number of dropped events.
+	 */
+	public long getDroppedInputEventCount() {
+		return this.inputQueue.getDroppedEventCount();
+	}
+
 }
@@ -0,0 +1,314 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * This class implements a GUI context without any window. The frames are drawn
+ * into an image that can be saved as PNG, input can be injected right away or
+ * scripted for a given frame. Use {@link Application#stepFrames(int, long)} in
+ * order to run an exact number of frames without waiting, or disable the frame
+ * limit and call {@link #stopAfterFrames(long)} before running the main loop.
+ */
+public final class HeadlessGUIContext extends GUIContext {
+
+	/**
+	 * The image the frames are drawn into
+	 */
+	private BufferedImage bufferedImage;
+
+	/**
+	 * The canvas drawing into the image
+	 */
+	private Canvas c;
+
+	/**
+	 * The cache of decoded assets
+	 */
+	private final DecodedImageCache imageCache = new DecodedImageCache();
+
+	/**
+	 * The atlas all tiles get packed into
+	 */
+	private final TileAtlas atlas = new TileAtlas();
+
+	/**
+	 * The position of the simulated mouse cursor relative to the canvas
+	 */
+	private volatile Vec2 cursorLocation = new Vec2(0, 0);
+
+	/**
+	 * The scripted input events ordered by the frame they are due in
+	 */
+	private final TreeMap<Long, List<Runnable>> script = new TreeMap<>();
+
+	/**
+	 * The number of completed frames
+	 */
+	private volatile long frameCount = 0;
+
+	/**
+	 * The number of frames after which the application gets stopped or a negative value
+	 */
+	private volatile long frameBudget = -1;
+
+	/**
+	 * The directory every frame gets saved to or null
+	 */
+	private volatile File dumpDirectory = null;
+
+	/**
+	 * Use this to create a new GUI context without any window
+	 *
+	 * @param width The width of the frames
+	 * @param height The height of the frames
+	 */
+	public HeadlessGUIContext(int width, int height) {
+		super("headless");
+		this.setResolution(width, height);
+	}
+
+	@Override
+	public Canvas getCanvas() {
+		c.clear();
+		return c;
+	}
+
+	@Override
+	public void performPaintOperation() {
+		final long frame = ++this.frameCount;
+		final File dir = this.dumpDirectory;
+		if (dir != null) {
+			try {
+				dumpFrame(new File(dir, String.format("frame-%06d.png", frame)));
+			} catch (IOException e) {
+				Application.crash(new RuntimeException("Unable to save frame " + frame + " to " + dir, e));
+			}
+		}
+		// The events of the next frame need to be queued before its input gets handled
+		runScriptUntil(frame);
+		final long budget = this.frameBudget;
+		if (budget >= 0 && frame >= budget) {
+			Application.stopApplication();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		Application.log("Headless context destroyed after " + this.frameCount + " frames");
+	}
+
+	@Override
+	public void setup() {
+		// There is no window to show
+	}
+
+	@Override
+	public Tile loadTile(String filePath) {
+		BufferedImage bi = null;
+		try {
+			bi = this.imageCache.load(new File(filePath));
+		} catch (IOException e) {
+			Application.crash(new RuntimeException("While loading the file " + filePath + " something went wrong.", e));
+		}
+		if (bi != null) {
+			final Tile t = this.atlas.add(bi);
+			if (t != null) {
+				return t;
+			}
+		}
+		return new BufferedImageTile(bi);
+	}
+
+	@Override
+	public void setResolution(int width, int height) {
+		this.bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		this.c = new BufferedImageCanvas(this.bufferedImage);
+		c.clear();
+	}
+
+	@Override
+	public Vec2 getResolution() {
+		return new Vec2(this.bufferedImage.getWidth(), this.bufferedImage.getHeight());
+	}
+
+	@Override
+	void appendScene(Scene s) {
+		// The input events are delivered to the current scene by the game loop
+	}
+
+	@Override
+	public Vec2 getMouseCursorLocation() {
+		return this.cursorLocation;
+	}
+
+	/**
+	 * Use this method in order to move the simulated mouse cursor.
+	 *
+	 * @param position The new position relative to the canvas
+	 */
+	public void moveMouseTo(Vec2 position) {
+		this.cursorLocation = position;
+	}
+
+	/**
+	 * Use this method in order to click at a position. The click gets delivered at
+	 * the start of the next frame.
+	 *
+	 * @param position The position relative to the canvas
+	 */
+	public void injectClick(Vec2 position) {
+		postClick(position);
+	}
+
+	/**
+	 * Use this method in order to press a key. The key press gets delivered at the
+	 * start of the next frame.
+	 *
+	 * @param key   The pressed key
+	 * @param shift Is shift pressed?
+	 * @param alt   Is alt pressed?
+	 * @param ctrl  Is ctrl pressed?
+	 * @param down  Is the down arrow key pressed?
+	 * @param up    Is the up arrow key pressed?
+	 * @param left  Is the left arrow key pressed?
+	 * @param right Is the right arrow key pressed?
+	 */
+	public void injectKeyPressed(char key, boolean shift, boolean alt, boolean ctrl, boolean down, boolean up,
+			boolean left, boolean right) {
+		postKeyPressed(key, shift, alt, ctrl, down, up, left, right);
+	}
+
+	/**
+	 * Use this method in order to script a mouse movement. Frames are counted from
+	 * zero and the cursor moves right before the given frame.
+	 *
+	 * @param frame The frame to move the cursor in
+	 * @param position The new position relative to the canvas
+	 */
+	public void scheduleMouseMove(long frame, Vec2 position) {
+		schedule(frame, () -> moveMouseTo(position));
+	}
+
+	/**
+	 * Use this method in order to script a click. Frames are counted from zero and
+	 * the click gets delivered at the start of the given frame.
+	 *
+	 * @param frame The frame to click in
+	 * @param position The position relative to the canvas
+	 */
+	public void scheduleClick(long frame, Vec2 position) {
+		schedule(frame, () -> injectClick(position));
+	}
+
+	/**
+	 * Use this method in order to script a key press without any modifiers. Frames
+	 * are counted from zero and the key press gets delivered at the start of the
+	 * given frame.
+	 *
+	 * @param frame The frame to press the key in
+	 * @param key The pressed key
+	 */
+	public void scheduleKeyPressed(long frame, char key) {
+		schedule(frame, () -> injectKeyPressed(key, false, false, false, false, false, false, false));
+	}
+
+	/**
+	 * This method adds an action to the script. Actions of frames that already
+	 * started are performed right away.
+	 *
+	 * @param frame The frame the action is due in
+	 * @param action The action
+	 */
+	private void schedule(long frame, Runnable action) {
+		synchronized (this.script) {
+			if (frame > this.frameCount) {
+				this.script.computeIfAbsent(frame, f -> new ArrayList<>()).add(action);
+				return;
+			}
+		}
+		action.run();
+	}
+
+	/**
+	 * This method performs all scripted actions that are due up to the given frame.
+	 *
+	 * @param frame The frame that is about to start
+	 */
+	private void runScriptUntil(long frame) {
+		final List<Runnable> due = new ArrayList<>();
+		synchronized (this.script) {
+			final Map<Long, List<Runnable>> head = this.script.headMap(frame, true);
+			for (List<Runnable> actions : head.values()) {
+				due.addAll(actions);
+			}
+			head.clear();
+		}
+		for (Runnable r : due) {
+			r.run();
+		}
+	}
+
+	/**
+	 * Use this method in order to stop the application once a number of frames got
+	 * drawn. This way the main loop can be run without a frame limit for an exact
+	 * number of frames.
+	 *
+	 * @param frames The total number of frames or a negative value in order to run until stopped
+	 */
+	public void stopAfterFrames(long frames) {
+		this.frameBudget = frames;
+	}
+
+	/**
+	 * Use this method in order to save every frame as PNG file.
+	 *
+	 * @param directory The directory to save the frames to or null in order to stop saving them
+	 */
+	public void setFrameDumpDirectory(File directory) {
+		if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+			throw new RuntimeException("Unable to create the directory " + directory);
+		}
+		this.dumpDirectory = directory;
+	}
+
+	/**
+	 * Use this method in order to save the last frame as PNG file.
+	 *
+	 * @param file The file to write to
+	 * @throws IOException if the file couldn't be written
+	 */
+	public void dumpFrame(File file) throws IOException {
+		if (!ImageIO.write(this.bufferedImage, "png", file)) {
+			throw new IOException("There is no PNG encoder available");
+		}
+	}
+
+	/**
+	 * Use this method in order to get a copy of the last frame.
+	 *
+	 * @return The pixels of the frame
+	 */
+	public BufferedImage getFrame() {
+		final BufferedImage copy = new BufferedImage(this.bufferedImage.getWidth(), this.bufferedImage.getHeight(),
+				BufferedImage.TYPE_INT_RGB);
+		copy.setData(this.bufferedImage.getRaster());
+		return copy;
+	}
+
+	/**
+	 * Use this method in order to get the number of completed frames.
+	 *
+	 * @return The number of frames
+	 */
+	public long getFrameCount() {
+		return this.frameCount;
+	}
+}
@@ -0,0 +1,240 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * InputQueue
+ *
+ * This class buffers input events between the threads of the windowing system
+ * and the game loop. Any number of threads may post events while only the game
+ * loop takes them out again, so posting never blocks and never allocates. Every
+ * event is encoded into a single long and stored together with the time it was
+ * captured at.
+ */
+final class InputQueue {
+
+	/**
+	 * The type of a key press event
+	 */
+	private static final int TYPE_KEY = 1;
+
+	/**
+	 * The type of a mouse click event
+	 */
+	private static final int TYPE_CLICK = 2;
+
+	/**
+	 * The bits of the modifier flags of a key event
+	 */
+	private static final int FLAG_SHIFT = 1, FLAG_ALT = 2, FLAG_CTRL = 4, FLAG_DOWN = 8, FLAG_UP = 16,
+			FLAG_LEFT = 32, FLAG_RIGHT = 64;
+
+	/**
+	 * The number of slots minus one. The capacity is a power of two so this masks a
+	 * sequence number into a slot index.
+	 */
+	private final int mask;
+
+	/**
+	 * The encoded events
+	 */
+	private final long[] events;
+
+	/**
+	 * The capture times of the events in nanoseconds
+	 */
+	private final long[] timestamps;
+
+	/**
+	 * The sequence number each slot expects next. A slot is free for the producer
+	 * holding sequence number n if it contains n and readable by the consumer if it
+	 * contains n + 1.
+	 */
+	private final AtomicLongArray sequences;
+
+	/**
+	 * The next sequence number to be claimed by a producer
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * The next sequence number to be read. Only the consumer touches it.
+	 */
+	private long head = 0;
+
+	/**
+	 * The number of events that got dropped because the queue was full
+	 */
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/**
+	 * The time between capturing and dispatching the last event in nanoseconds
+	 */
+	private volatile long lastLatencyNanos = 0;
+
+	/**
+	 * The highest time between capturing and dispatching an event in nanoseconds
+	 */
+	private volatile long maximumLatencyNanos = 0;
+
+	/**
+	 * Construct a new input queue
+	 *
+	 * @param capacity The number of events the queue can hold. It gets rounded up to a power of two.
+	 */
+	InputQueue(int capacity) {
+		final int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.mask = size - 1;
+		this.events = new long[size];
+		this.timestamps = new long[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Use this method in order to post a key press. It may be called from any thread.
+	 *
+	 * @param key   The pressed key
+	 * @param shift Is shift pressed?
+	 * @param alt   Is alt pressed?
+	 * @param ctrl  Is ctrl pressed?
+	 * @param down  Is the down arrow key pressed?
+	 * @param up    Is the up arrow key pressed?
+	 * @param left  Is the left arrow key pressed?
+	 * @param right Is the right arrow key pressed?
+	 * @return False if the event got dropped as the queue was full
+	 */
+	boolean postKeyPressed(char key, boolean shift, boolean alt, boolean ctrl, boolean down, boolean up,
+			boolean left, boolean right) {
+		final int flags = (shift ? FLAG_SHIFT : 0) | (alt ? FLAG_ALT : 0) | (ctrl ? FLAG_CTRL : 0)
+				| (down ? FLAG_DOWN : 0) | (up ? FLAG_UP : 0) | (left ? FLAG_LEFT : 0) | (right ? FLAG_RIGHT : 0);
+		return offer(TYPE_KEY | ((long) key << 8) | ((long) flags << 24));
+	}
+
+	/**
+	 * Use this method in order to post a mouse click. It may be called from any thread.
+	 *
+	 * @param x The x coordinate of the click relative to the canvas
+	 * @param y The y coordinate of the click relative to the canvas
+	 * @return False if the event got dropped as the queue was full
+	 */
+	boolean postClick(int x, int y) {
+		return offer(TYPE_CLICK | ((x & 0xFFFFL) << 16) | ((y & 0xFFFFL) << 32));
+	}
+
+	/**
+	 * This method stores an encoded event within the next free slot.
+	 *
+	 * @param event The encoded event
+	 * @return False if the queue is full
+	 */
+	private boolean offer(long event) {
+		final long now = System.nanoTime();
+		while (true) {
+			final long position = this.tail.get();
+			final int index = (int) position & this.mask;
+			final long difference = this.sequences.getAcquire(index) - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.events[index] = event;
+					this.timestamps[index] = now;
+					// Publishing the slot makes the plain writes above visible to the consumer
+					this.sequences.setRelease(index, position + 1);
+					return true;
+				}
+			} else if (difference < 0) {
+				// The consumer didn't free this slot yet
+				this.droppedEvents.incrementAndGet();
+				return false;
+			}
+			// Another producer claimed this position in the meantime
+		}
+	}
+
+	/**
+	 * Use this method in order to deliver all queued events. It must only be called
+	 * by the game loop. As a handler may switch the scene every event is delivered
+	 * to the scene that is current at the time it gets dispatched.
+	 *
+	 * @return The number of dispatched events
+	 */
+	int dispatch() {
+		int count = 0;
+		while (true) {
+			final int index = (int) this.head & this.mask;
+			if (this.sequences.getAcquire(index) != this.head + 1) {
+				return count;
+			}
+			final long event = this.events[index];
+			final long timestamp = this.timestamps[index];
+			// Free the slot before delivering the event so a crashing handler can't block the queue
+			this.sequences.setRelease(index, this.head + this.mask + 1);
+			this.head++;
+			count++;
+
+			final long latency = System.nanoTime() - timestamp;
+			this.lastLatencyNanos = latency;
+			if (latency > this.maximumLatencyNanos) {
+				this.maximumLatencyNanos = latency;
+			}
+			deliver(event, Application.getCurrentScene());
+		}
+	}
+
+	/**
+	 * This method decodes an event and hands it over to a scene.
+	 *
+	 * @param event The encoded event
+	 * @param s The scene to deliver the event to
+	 */
+	private static void deliver(long event, Scene s) {
+		if (s == null) {
+			return;
+		}
+		synchronized (s) {
+			switch ((int) event & 0xFF) {
+			case TYPE_KEY:
+				final int flags = (int) (event >>> 24) & 0xFF;
+				s.keyPressed((char) (event >>> 8), (flags & FLAG_SHIFT) != 0, (flags & FLAG_ALT) != 0,
+						(flags & FLAG_CTRL) != 0, (flags & FLAG_DOWN) != 0, (flags & FLAG_UP) != 0,
+						(flags & FLAG_LEFT) != 0, (flags & FLAG_RIGHT) != 0);
+				break;
+			case TYPE_CLICK:
+				s.clickedAt(new Vec2((short) (event >>> 16), (short) (event >>> 32)));
+				break;
+			default:
+				throw new RuntimeException("Unknown input event type: " + ((int) event & 0xFF));
+			}
+		}
+	}
+
+	/**
+	 * Use this method in order to get the time the last dispatched event spent within the queue.
+	 *
+	 * @return The latency in nanoseconds.
+	 */
+	long getLastLatencyNanos() {
+		return this.lastLatencyNanos;
+	}
+
+	/**
+	 * Use this method in order to get the highest time an event spent within the queue.
+	 *
+	 * @return The latency in nanoseconds.
+	 */
+	long getMaximumLatencyNanos() {
+		return this.maximumLatencyNanos;
+	}
+
+	/**
+	 * Use this method in order to get the number of events that got lost because the queue was full.
+	 *
+	 * @return The number of dropped events.
+	 */
+	long getDroppedEventCount() {
+		return this.droppedEvents.get();
+	}
+}
@@ -0,0 +1,180 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TileAtlas
+ *
+ * This class packs the images of tiles into a few large int ARGB sheets. Opaque
+ * tiles are copied straight into the pixels of the canvas row by row instead of
+ * being drawn as separate images. Tiles with transparent pixels are still drawn
+ * by Java2D, but from a region of a sheet.
+ */
+final class TileAtlas {
+
+	/**
+	 * The width and height of a single sheet
+	 */
+	static final int PAGE_SIZE = 1024;
+
+	/**
+	 * The sheets holding the tiles
+	 */
+	private final List<BufferedImage> pages = new ArrayList<>();
+
+	/**
+	 * The pixels of the sheet currently filled
+	 */
+	private int[] currentPixels = null;
+
+	/**
+	 * The x coordinate of the next tile within the current shelf
+	 */
+	private int shelfX = 0;
+
+	/**
+	 * The y coordinate of the current shelf
+	 */
+	private int shelfY = 0;
+
+	/**
+	 * The height of the highest tile within the current shelf
+	 */
+	private int shelfHeight = 0;
+
+	/**
+	 * Use this method in order to pack an image into the atlas. The tiles are
+	 * placed next to each other in shelves, a new sheet is started once the
+	 * current one is full.
+	 *
+	 * @param image The image of the tile
+	 * @return The tile or null if the image is too large for the atlas
+	 */
+	synchronized AtlasTile add(BufferedImage image) {
+		final int width = image.getWidth(), height = image.getHeight();
+		if (width > PAGE_SIZE || height > PAGE_SIZE) {
+			return null;
+		}
+		if (this.currentPixels != null && this.shelfX + width > PAGE_SIZE) {
+			// Start a new shelf
+			this.shelfX = 0;
+			this.shelfY += this.shelfHeight;
+			this.shelfHeight = 0;
+		}
+		if (this.currentPixels == null || this.shelfY + height > PAGE_SIZE) {
+			final BufferedImage page = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+			this.pages.add(page);
+			this.currentPixels = ((DataBufferInt) page.getRaster().getDataBuffer()).getData();
+			this.shelfX = 0;
+			this.shelfY = 0;
+			this.shelfHeight = 0;
+		}
+		final BufferedImage page = this.pages.get(this.pages.size() - 1);
+		final int offset = this.shelfY * PAGE_SIZE + this.shelfX;
+		image.getRGB(0, 0, width, height, this.currentPixels, offset, PAGE_SIZE);
+
+		boolean opaque = true;
+		for (int y = 0; y < height && opaque; y++) {
+			for (int i = offset + y * PAGE_SIZE, end = i + width; i < end; i++) {
+				if ((this.currentPixels[i] >>> 24) != 0xFF) {
+					opaque = false;
+					break;
+				}
+			}
+		}
+		final AtlasTile tile = new AtlasTile(this.currentPixels, offset, width, height, opaque,
+				page.getSubimage(this.shelfX, this.shelfY, width, height));
+		this.shelfX += width;
+		this.shelfHeight = Math.max(this.shelfHeight, height);
+		return tile;
+	}
+
+	/**
+	 * Use this method in order to get the number of sheets.
+	 *
+	 * @return The number of sheets
+	 */
+	synchronized int getPageCount() {
+		return this.pages.size();
+	}
+
+	/**
+	 * This class represents a tile stored within a sheet of the atlas.
+	 */
+	static final class AtlasTile extends Tile {
+
+		/**
+		 * The pixels of the sheet containing the tile
+		 */
+		private final int[] sheet;
+
+		/**
+		 * The index of the upper left pixel of the tile within the sheet
+		 */
+		private final int offset;
+
+		/**
+		 * The width of the tile
+		 */
+		private final int width;
+
+		/**
+		 * The height of the tile
+		 */
+		private final int height;
+
+		/**
+		 * True if the tile doesn't contain any transparent pixels
+		 */
+		private final boolean opaque;
+
+		/**
+		 * The region of the sheet containing the tile
+		 */
+		private final BufferedImage region;
+
+		/**
+		 * Construct a new tile of the atlas
+		 *
+		 * @param sheet The pixels of the sheet containing the tile
+		 * @param offset The index of the upper left pixel of the tile within the sheet
+		 * @param width The width of the tile
+		 * @param height The height of the tile
+		 * @param opaque True if the tile doesn't contain any transparent pixels
+		 * @param region The region of the sheet containing the tile
+		 */
+		private AtlasTile(int[] sheet, int offset, int width, int height, boolean opaque, BufferedImage region) {
+			this.sheet = sheet;
+			this.offset = offset;
+			this.width = width;
+			this.height = height;
+			this.opaque = opaque;
+			this.region = region;
+		}
+
+		@Override
+		public void renderAt(Canvas c, Vec2 position) {
+			if (!(c instanceof BufferedImageCanvas)) {
+				throw new RuntimeException("Something went wrong: This is an AWT Tile but the " +
+						"canvas doesn't seam to be AWT compatible.");
+			}
+			final BufferedImageCanvas bic = (BufferedImageCanvas) c;
+			if (!this.opaque || !bic.copyOpaquePixels(this.sheet, this.offset, PAGE_SIZE, this.width, this.height,
+					position.getX(), position.getY())) {
+				bic.renderBufferedImage(this.region, position.getX(), position.getY());
+			}
+		}
+
+		/**
+		 * Use this method in order to check whether the tile gets copied without blending.
+		 *
+		 * @return True if the tile doesn't contain any transparent pixels
+		 */
+		boolean isOpaque() {
+			return this.opaque;
+		}
+	}
+}
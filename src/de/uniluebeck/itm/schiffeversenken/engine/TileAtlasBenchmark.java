@@ -0,0 +1,188 @@
+package de.uniluebeck.itm.schiffeversenken.engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class compares the fill rate of drawing every tile as its own image with
+ * the fill rate of the tile atlas. For every tile set under assets/ it fills a
+ * back buffer once with the opaque water tile only and once with all tiles of
+ * the set, and checks that both ways produce the same pixels.
+ *
+ * Usage: TileAtlasBenchmark [milliseconds per run]
+ */
+public final class TileAtlasBenchmark {
+
+	/**
+	 * The width of the back buffer
+	 */
+	private static final int WIDTH = 1280;
+
+	/**
+	 * The height of the back buffer
+	 */
+	private static final int HEIGHT = 720;
+
+	/**
+	 * The tile sets to measure
+	 */
+	private static final String[] TILE_SETS = {"16x16", "32x32", "64x64"};
+
+	/**
+	 * This class only contains the benchmark
+	 */
+	private TileAtlasBenchmark() {
+	}
+
+	/**
+	 * The entry point of the benchmark.
+	 *
+	 * @param args The command line arguments passed to the application
+	 * @throws IOException if a tile couldn't be loaded
+	 */
+	public static void main(String[] args) throws IOException {
+		final long millisPerRun = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+		final DecodedImageCache cache = new DecodedImageCache();
+		System.out.printf("%-12s %6s %6s %16s %16s %8s %s%n", "run", "tiles", "opaque", "images [MPx/s]",
+				"atlas [MPx/s]", "speedup", "identical");
+		for (String set : TILE_SETS) {
+			final File[] files = new File("assets/" + set).listFiles((dir, name) -> name.endsWith(".png"));
+			if (files == null || files.length == 0) {
+				System.out.println("No tiles found in assets/" + set);
+				continue;
+			}
+			Arrays.sort(files);
+			final TileAtlas atlas = new TileAtlas();
+			final List<Tile> imageTiles = new ArrayList<>();
+			final List<TileAtlas.AtlasTile> atlasTiles = new ArrayList<>();
+			Tile imageWater = null;
+			TileAtlas.AtlasTile atlasWater = null;
+			for (File f : files) {
+				final BufferedImage bi = cache.load(f);
+				final Tile imageTile = new BufferedImageTile(toCompatibleImage(bi));
+				final TileAtlas.AtlasTile atlasTile = atlas.add(bi);
+				imageTiles.add(imageTile);
+				atlasTiles.add(atlasTile);
+				if (f.getName().startsWith("Tile_Water_" + set)) {
+					imageWater = imageTile;
+					atlasWater = atlasTile;
+				}
+			}
+			final int tileSize = Integer.parseInt(set.substring(0, set.indexOf('x')));
+			if (imageWater != null) {
+				run(set + " water", tileSize, List.of(imageWater), List.of(atlasWater), millisPerRun);
+			}
+			run(set + " all", tileSize, imageTiles, atlasTiles, millisPerRun);
+		}
+	}
+
+	/**
+	 * This method measures both ways of drawing a list of tiles and prints the result.
+	 *
+	 * @param name The name of the run
+	 * @param tileSize The width and height of a tile
+	 * @param imageTiles The tiles drawn as separate images
+	 * @param atlasTiles The same tiles drawn from the atlas
+	 * @param millisPerRun The duration of each measurement
+	 */
+	private static void run(String name, int tileSize, List<Tile> imageTiles,
+			List<TileAtlas.AtlasTile> atlasTiles, long millisPerRun) {
+		int opaque = 0;
+		for (TileAtlas.AtlasTile t : atlasTiles) {
+			opaque += t.isOpaque() ? 1 : 0;
+		}
+		final BufferedImage imageTarget = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		final BufferedImage atlasTarget = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		final Canvas imageCanvas = new BufferedImageCanvas(imageTarget);
+		final Canvas atlasCanvas = new BufferedImageCanvas(atlasTarget);
+		fill(imageCanvas, imageTiles, tileSize);
+		fill(atlasCanvas, atlasTiles, tileSize);
+		final boolean identical = Arrays.equals(imageTarget.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH),
+				atlasTarget.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+
+		final double imageRate = measure(imageCanvas, imageTiles, tileSize, millisPerRun);
+		final double atlasRate = measure(atlasCanvas, atlasTiles, tileSize, millisPerRun);
+		System.out.printf("%-12s %6d %6d %16.1f %16.1f %7.2fx %s%n", name, atlasTiles.size(), opaque, imageRate,
+				atlasRate, atlasRate / imageRate, identical ? "yes" : "NO");
+	}
+
+	/**
+	 * This method fills the canvas with the tiles again and again until the time is up.
+	 *
+	 * @param c The canvas to fill
+	 * @param tiles The tiles to draw
+	 * @param tileSize The width and height of a tile
+	 * @param millis The duration of the measurement
+	 * @return The fill rate in mega pixels per second
+	 */
+	private static double measure(Canvas c, List<? extends Tile> tiles, int tileSize, long millis) {
+		// Let the JIT settle first
+		final long warmUpEnd = System.nanoTime() + millis * 250000L;
+		while (System.nanoTime() < warmUpEnd) {
+			fill(c, tiles, tileSize);
+		}
+		long pixels = 0;
+		final long start = System.nanoTime(), end = start + millis * 1000000L;
+		long now;
+		do {
+			pixels += fill(c, tiles, tileSize);
+			now = System.nanoTime();
+		} while (now < end);
+		return pixels / ((now - start) / 1000.0);
+	}
+
+	/**
+	 * This method covers the canvas with the tiles, using them in turn.
+	 *
+	 * @param c The canvas to fill
+	 * @param tiles The tiles to draw
+	 * @param tileSize The width and height of a tile
+	 * @return The number of drawn pixels
+	 */
+	private static long fill(Canvas c, List<? extends Tile> tiles, int tileSize) {
+		c.clear();
+		int i = 0;
+		long pixels = 0;
+		for (int y = 0; y < HEIGHT; y += tileSize) {
+			for (int x = 0; x < WIDTH; x += tileSize) {
+				tiles.get(i++ % tiles.size()).renderAt(c, new Vec2(x, y));
+				pixels += (long) tileSize * tileSize;
+			}
+		}
+		return pixels;
+	}
+
+	/**
+	 * This method converts an image into the format of the screen, just like the
+	 * tiles of the AWT context. Without a screen the image is used as it is.
+	 *
+	 * @param image The image to convert
+	 * @return The converted image
+	 */
+	private static BufferedImage toCompatibleImage(BufferedImage image) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return image;
+		}
+		final GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		final BufferedImage compatible = gc.createCompatibleImage(image.getWidth(), image.getHeight(),
+				Transparency.TRANSLUCENT);
+		final Graphics2D g = compatible.createGraphics();
+		try {
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+		return compatible;
+	}
+}
@@ -67,6 +67,22 @@ public abstract class Button extends Component implements Drawable, Clickable {
 		}
 	}
 
+	@Override
+	protected Vec2 getDrawnPosition(Canvas c) {
+		// A text that is longer than the button reaches beyond both sides
+		final int textWidth = c.getTextDimensions(this.getText()).getX();
+		return new Vec2(Math.min(this.getPosition().getX(),
+				this.getPosition().getX() + this.getWidth() / 2 - textWidth / 2), this.getPosition().getY());
+	}
+
+	@Override
+	protected Vec2 getDrawnSize(Canvas c) {
+		final int textWidth = c.getTextDimensions(this.getText()).getX();
+		final int left = Math.min(0, this.getWidth() / 2 - textWidth / 2);
+		final int right = Math.max(this.getWidth(), this.getWidth() / 2 - textWidth / 2 + textWidth);
+		return new Vec2(right - left, this.getHeight());
+	}
+
 	/**
 	 * Use this method in order to get the displayed Text.
 	 * 
@@ -84,6 +100,7 @@ public abstract class Button extends Component implements Drawable, Clickable {
 	 */
 	public final void setText(String text) {
 		this.text = text;
+		this.markDirty();
 	}
 
 }
@@ -100,6 +100,7 @@ public final class Checkbox extends Component implements Clickable, Drawable {
 	 */
 	public final void setText(String text) {
 		this.text = text;
+		this.markDirty();
 	}
 
 	/**
@@ -118,6 +119,15 @@ public final class Checkbox extends Component implements Clickable, Drawable {
 	 */
 	public void setActivated(boolean activated) {
 		this.activated = activated;
+		this.markDirty();
+	}
+
+	@Override
+	protected Vec2 getDrawnSize(Canvas c) {
+		// The text is drawn next to the box and its descent reaches below the baseline
+		final Vec2 textDimensions = c.getTextDimensions(this.text);
+		return new Vec2(this.getWidth() + 10 + textDimensions.getX(),
+				Math.max(this.getHeight(), textDimensions.getY() + textDimensions.getY() / 2));
 	}
 
 }
@@ -1,5 +1,8 @@
 package de.uniluebeck.itm.schiffeversenken.engine.uicomponents;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.uniluebeck.itm.schiffeversenken.engine.Canvas;
 import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
 
 /**
@@ -14,6 +17,18 @@ import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
  */
 public class Component {
 
+	/**
+	 * The number of times any component moved or got resized. Cached layouts are
+	 * rebuilt once it changes.
+	 */
+	private static final AtomicLong layoutChanges = new AtomicLong();
+
+	/**
+	 * The number of pixels the cached rendering reaches beyond the drawn area, for
+	 * example for the border lines at the right and the bottom
+	 */
+	private static final int SURFACE_MARGIN = 2;
+
 	/**
 	 * The vector containing the coordinates of the component
 	 */
@@ -39,6 +54,26 @@ public class Component {
 	 */
 	private boolean enabled;
 
+	/**
+	 * This variable is true if the cached rendering is outdated
+	 */
+	private volatile boolean dirty;
+
+	/**
+	 * The cached rendering or null. Only the render thread touches it.
+	 */
+	private Canvas surface;
+
+	/**
+	 * The x coordinate the cached rendering gets drawn at
+	 */
+	private int surfaceX;
+
+	/**
+	 * The y coordinate the cached rendering gets drawn at
+	 */
+	private int surfaceY;
+
 	/**
 	 * Use this to create a new Component
 	 */
@@ -48,6 +83,7 @@ public class Component {
 		height = 10;
 		visible = true;
 		enabled = true;
+		dirty = true;
 	}
 
 	/**
@@ -66,6 +102,8 @@ public class Component {
 	 */
 	public void setPosition(Vec2 position) {
 		this.position = position;
+		this.markDirty();
+		layoutChanges.incrementAndGet();
 	}
 
 	/**
@@ -84,6 +122,8 @@ public class Component {
 	 */
 	public void setWidth(int width) {
 		this.width = width;
+		this.markDirty();
+		layoutChanges.incrementAndGet();
 	}
 
 	/**
@@ -102,6 +142,8 @@ public class Component {
 	 */
 	public void setHeight(int height) {
 		this.height = height;
+		this.markDirty();
+		layoutChanges.incrementAndGet();
 	}
 
 	/**
@@ -120,6 +162,7 @@ public class Component {
 	 */
 	public void setVisible(boolean visible) {
 		this.visible = visible;
+		this.markDirty();
 	}
 
 	/**
@@ -138,5 +181,105 @@ public class Component {
 	 */
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
+		this.markDirty();
+	}
+
+	/**
+	 * Use this method in order to check whether any component moved or got resized.
+	 *
+	 * @return A number that changes whenever a component moved or got resized
+	 */
+	static long getLayoutVersion() {
+		return layoutChanges.get();
+	}
+
+	/**
+	 * Use this method in order to tell the component that its look changed. It
+	 * gets drawn again within the next frame instead of reusing its cached
+	 * rendering. Setters call it on their own, so only call it if you changed
+	 * something the component can't know about.
+	 */
+	public void markDirty() {
+		this.dirty = true;
+	}
+
+	/**
+	 * Use this method in order to check if the cached rendering is outdated.
+	 * 
+	 * @return true if the component needs to be drawn again
+	 */
+	public boolean isDirty() {
+		return this.dirty;
+	}
+
+	/**
+	 * Override this method in order to tell whether the component may be drawn
+	 * from its cached rendering right now. It needs to return false as long as the
+	 * look depends on anything besides the state of the component, for example
+	 * on the mouse location or on the time.
+	 * 
+	 * @return true if the cached rendering can be used
+	 */
+	protected boolean isRetainable() {
+		return true;
+	}
+
+	/**
+	 * Override this method if the component draws outside of its bounds.
+	 * 
+	 * @param c The canvas the component gets drawn on, for example in order to measure text
+	 * @return The upper left corner of the area the component draws in
+	 */
+	protected Vec2 getDrawnPosition(Canvas c) {
+		return this.getPosition();
+	}
+
+	/**
+	 * Override this method if the component draws outside of its bounds.
+	 * 
+	 * @param c The canvas the component gets drawn on, for example in order to measure text
+	 * @return The width and height of the area the component draws in
+	 */
+	protected Vec2 getDrawnSize(Canvas c) {
+		return new Vec2(this.getWidth(), this.getHeight());
+	}
+
+	/**
+	 * This method draws a drawable component. The component only gets drawn again
+	 * if it is dirty, otherwise its cached rendering gets copied onto the canvas.
+	 * 
+	 * @param c The canvas to draw on
+	 * @param mouseLocation The location of the mouse relative to the canvas
+	 */
+	final void drawRetained(Canvas c, Vec2 mouseLocation) {
+		final Drawable d = (Drawable) this;
+		if (!this.isRetainable()) {
+			this.surface = null;
+			d.draw(c, mouseLocation);
+			return;
+		}
+		if (this.dirty || this.surface == null) {
+			// Reset the flag first, changes made while drawing are picked up within the next frame
+			this.dirty = false;
+			final Vec2 position = this.getDrawnPosition(c), size = this.getDrawnSize(c);
+			final int width = Math.max(1, size.getX() + 2 * SURFACE_MARGIN);
+			final int height = Math.max(1, size.getY() + 2 * SURFACE_MARGIN);
+			if (this.surface == null || this.surface.getResolutionWidth() != width
+					|| this.surface.getResolutionHeight() != height) {
+				this.surface = c.createTranslucentCanvas(width, height);
+				if (this.surface == null) {
+					// The canvas doesn't support off-screen canvases
+					d.draw(c, mouseLocation);
+					return;
+				}
+			}
+			this.surfaceX = position.getX() - SURFACE_MARGIN;
+			this.surfaceY = position.getY() - SURFACE_MARGIN;
+			this.surface.clear();
+			this.surface.translate(-this.surfaceX, -this.surfaceY);
+			d.draw(this.surface, mouseLocation);
+			this.surface.translate(this.surfaceX, this.surfaceY);
+		}
+		c.drawCanvas(this.surface, this.surfaceX, this.surfaceY);
 	}
 }
@@ -1,7 +1,5 @@
 package de.uniluebeck.itm.schiffeversenken.engine.uicomponents;
 
-import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.Map.Entry;
 
 import de.uniluebeck.itm.schiffeversenken.engine.Application;
@@ -51,61 +49,30 @@ public abstract class ComponentController extends Controller<ComponentModel> {
 
 	@Override
 	public void clickedAt(Vec2 position) {
-		// Search for a click candidate
-		final LinkedList<Entry<String, Component>> clickCandidates = new LinkedList<Entry<String, Component>>();
-		for (Entry<String, Component> entry : this.getModelInstance().getNamedComponents()) {
-			if (entry.getValue() instanceof Clickable) {
-				final Clickable c = (Clickable) entry.getValue();
-				if (c.checkedIfClicked(position)) {
-					clickCandidates.add(entry);
-				}
-			} else {
-				final Component c = entry.getValue();
-				if (c.getPosition().getX() <= position.getX()
-						&& position.getX() <= c.getPosition().getX() + c.getWidth()
-						&& c.getPosition().getY() <= position.getY()
-						&& position.getY() <= c.getPosition().getY() + c.getHeight()) {
-					clickCandidates.add(entry);
-				}
-			}
-		}
-		// Process the click
-		if (clickCandidates.isEmpty()) {
+		// The candidates are looked up within the grid of the model
+		final Entry<String, Component> c = this.getModelInstance().getIndex().findClicked(position);
+		if (c == null) {
 			Application.log("Clicked at nothing?");
 			return;
 		}
-		clickCandidates.sort(new Comparator<Entry<String, Component>>() {
-
-			@Override
-			public int compare(Entry<String, Component> arg0, Entry<String, Component> arg1) {
-				final Component c = arg0.getValue();
-				if(!(c instanceof LateRendering && c instanceof Clickable)) {
-					return 1;
-				}
-				final LateRendering l = (LateRendering) c;
-				return l.isCurrentlyLate() ? -1 : 1;
-			}});
-		final Entry<String, Component> c = clickCandidates.get(0);
-		if (c != null) {
-			Application.log("Processing click of " + c.getValue().toString());
-			if (c.getValue() instanceof TextInput) {
-				TextInput ti = (TextInput) c.getValue();
-				ti.notifyActivationStateChanged(true);
-				if (this.activeTextInput != null) {
-					final Component oldActiveInput = this.getModelInstance().getComponent(this.activeTextInput);
-					if (oldActiveInput != null) {
-						if (oldActiveInput instanceof TextInput) {
-							final TextInput oldTi = (TextInput) oldActiveInput;
-							oldTi.notifyActivationStateChanged(false);
-						}
+		Application.log("Processing click of " + c.getValue().toString());
+		if (c.getValue() instanceof TextInput) {
+			TextInput ti = (TextInput) c.getValue();
+			ti.notifyActivationStateChanged(true);
+			if (this.activeTextInput != null) {
+				final Component oldActiveInput = this.getModelInstance().getComponent(this.activeTextInput);
+				if (oldActiveInput != null) {
+					if (oldActiveInput instanceof TextInput) {
+						final TextInput oldTi = (TextInput) oldActiveInput;
+						oldTi.notifyActivationStateChanged(false);
 					}
 				}
-				this.activeTextInput = c.getKey();
-			}
-			if (c.getValue() instanceof Clickable) {
-				Clickable cli = (Clickable) c.getValue();
-				cli.performAction();
 			}
+			this.activeTextInput = c.getKey();
+		}
+		if (c.getValue() instanceof Clickable) {
+			Clickable cli = (Clickable) c.getValue();
+			cli.performAction();
 		}
 	}
 
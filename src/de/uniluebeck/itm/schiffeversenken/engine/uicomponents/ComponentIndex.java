@@ -0,0 +1,306 @@
+package de.uniluebeck.itm.schiffeversenken.engine.uicomponents;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+
+import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
+
+/**
+ * ComponentIndex
+ *
+ * This class keeps the components of a model in the order they need to be
+ * drawn in and sorts them into a uniform grid in order to find clicked
+ * components quickly. Both get rebuilt only if a component was added, a late
+ * rendering component changed its state or a component moved or got resized.
+ */
+final class ComponentIndex {
+
+	/**
+	 * The width and height of a grid cell in pixels
+	 */
+	static final int CELL_SIZE = 64;
+
+	/**
+	 * The model containing the components
+	 */
+	private final ComponentModel model;
+
+	/**
+	 * The components in the order they get drawn in, the topmost one is the last one
+	 */
+	private final List<Entry<String, Component>> order = new ArrayList<>();
+
+	/**
+	 * The drawable components in the order they get drawn in
+	 */
+	private Component[] drawables = new Component[0];
+
+	/**
+	 * The components that might want to be rendered late. They aren't part of the
+	 * grid as their clickable area may grow, so they're always tested directly.
+	 */
+	private LateRendering[] lateComponents = new LateRendering[0];
+
+	/**
+	 * The positions of the late rendering components within the draw order
+	 */
+	private int[] lateOrderIndices = new int[0];
+
+	/**
+	 * The states of the late rendering components when the order was built
+	 */
+	private boolean[] lateStates = new boolean[0];
+
+	/**
+	 * The positions of the components within the draw order, indexed by [row * columns + column]
+	 */
+	private int[][] cells = new int[0][];
+
+	/**
+	 * The column of the first grid cell
+	 */
+	private int firstColumn;
+
+	/**
+	 * The row of the first grid cell
+	 */
+	private int firstRow;
+
+	/**
+	 * The number of grid columns
+	 */
+	private int columns;
+
+	/**
+	 * The number of grid rows
+	 */
+	private int rows;
+
+	/**
+	 * The modification count of the model when the index was built or -1
+	 */
+	private long builtModification = -1;
+
+	/**
+	 * The number of components when the index was built
+	 */
+	private int builtSize = -1;
+
+	/**
+	 * The layout version of the components when the grid was built
+	 */
+	private long builtLayout = -1;
+
+	/**
+	 * Construct a new index of the components of a model
+	 *
+	 * @param model The model
+	 */
+	ComponentIndex(ComponentModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * Use this method in order to get the drawable components in the order they
+	 * need to be drawn in. The array must not be modified.
+	 *
+	 * @return The drawable components
+	 */
+	synchronized Component[] getDrawables() {
+		validate();
+		return this.drawables;
+	}
+
+	/**
+	 * Use this method in order to find the component that should receive a click.
+	 * Late rendering clickable components that are currently late come first, then
+	 * clickable components and then any other component, each time preferring the
+	 * topmost one.
+	 *
+	 * @param position The position of the click
+	 * @return The component and its name or null if nothing got hit
+	 */
+	synchronized Entry<String, Component> findClicked(Vec2 position) {
+		validate();
+		int best = -1, bestRank = -1;
+		// The late rendering components are always asked as they might react to a click next to them
+		for (int i = 0; i < this.lateComponents.length; i++) {
+			final int index = this.lateOrderIndices[i];
+			final int rank = rankOf(this.order.get(index).getValue(), position);
+			if (rank > bestRank || (rank == bestRank && rank >= 0 && index > best)) {
+				best = index;
+				bestRank = rank;
+			}
+		}
+		final int column = Math.floorDiv(position.getX(), CELL_SIZE) - this.firstColumn;
+		final int row = Math.floorDiv(position.getY(), CELL_SIZE) - this.firstRow;
+		if (column >= 0 && column < this.columns && row >= 0 && row < this.rows) {
+			for (int index : this.cells[row * this.columns + column]) {
+				final int rank = rankOf(this.order.get(index).getValue(), position);
+				if (rank > bestRank || (rank == bestRank && rank >= 0 && index > best)) {
+					best = index;
+					bestRank = rank;
+				}
+			}
+		}
+		return bestRank < 0 ? null : this.order.get(best);
+	}
+
+	/**
+	 * This method tests whether a component got hit and how much it wants the click.
+	 *
+	 * @param c The component
+	 * @param position The position of the click
+	 * @return -1 if it wasn't hit, 2 for a late clickable, 1 for a clickable and 0 for any other component
+	 */
+	private static int rankOf(Component c, Vec2 position) {
+		if (c instanceof Clickable) {
+			if (!((Clickable) c).checkedIfClicked(position)) {
+				return -1;
+			}
+			return c instanceof LateRendering && ((LateRendering) c).isCurrentlyLate() ? 2 : 1;
+		}
+		return contains(c, position) ? 0 : -1;
+	}
+
+	/**
+	 * This method checks whether a position lies within the bounds of a component.
+	 *
+	 * @param c The component
+	 * @param position The position
+	 * @return True if it does
+	 */
+	private static boolean contains(Component c, Vec2 position) {
+		return c.getPosition().getX() <= position.getX()
+				&& position.getX() <= c.getPosition().getX() + c.getWidth()
+				&& c.getPosition().getY() <= position.getY()
+				&& position.getY() <= c.getPosition().getY() + c.getHeight();
+	}
+
+	/**
+	 * This method rebuilds whatever got outdated.
+	 */
+	private void validate() {
+		if (this.builtModification != this.model.getModificationCount()
+				|| this.builtSize != this.model.getNamedComponents().size() || lateStatesChanged()) {
+			buildOrder();
+			buildGrid();
+		} else if (this.builtLayout != Component.getLayoutVersion()) {
+			buildGrid();
+		}
+	}
+
+	/**
+	 * This method checks whether a late rendering component changed its state.
+	 *
+	 * @return True if the draw order needs to be rebuilt
+	 */
+	private boolean lateStatesChanged() {
+		for (int i = 0; i < this.lateComponents.length; i++) {
+			if (this.lateComponents[i].isCurrentlyLate() != this.lateStates[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method builds the draw order. Components keep the order of the model,
+	 * except for the ones that are currently late, which are moved to the end.
+	 */
+	private void buildOrder() {
+		this.builtModification = this.model.getModificationCount();
+		this.builtSize = this.model.getNamedComponents().size();
+		final List<Entry<String, Component>> late = new ArrayList<>();
+		this.order.clear();
+		int lateCount = 0;
+		for (Entry<String, Component> e : this.model.getNamedComponents()) {
+			final Component c = e.getValue();
+			if (c instanceof LateRendering) {
+				lateCount++;
+				if (((LateRendering) c).isCurrentlyLate()) {
+					late.add(e);
+					continue;
+				}
+			}
+			this.order.add(e);
+		}
+		this.order.addAll(late);
+
+		final List<Component> drawables = new ArrayList<>(this.order.size());
+		this.lateComponents = new LateRendering[lateCount];
+		this.lateOrderIndices = new int[lateCount];
+		this.lateStates = new boolean[lateCount];
+		int l = 0;
+		for (int i = 0; i < this.order.size(); i++) {
+			final Component c = this.order.get(i).getValue();
+			if (c instanceof Drawable) {
+				drawables.add(c);
+			}
+			if (c instanceof LateRendering) {
+				this.lateComponents[l] = (LateRendering) c;
+				this.lateOrderIndices[l] = i;
+				this.lateStates[l] = this.lateComponents[l].isCurrentlyLate();
+				l++;
+			}
+		}
+		this.drawables = drawables.toArray(new Component[drawables.size()]);
+	}
+
+	/**
+	 * This method sorts every component except the late rendering ones into the
+	 * grid cells covered by its bounds.
+	 */
+	private void buildGrid() {
+		this.builtLayout = Component.getLayoutVersion();
+		int minColumn = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE;
+		int maxColumn = Integer.MIN_VALUE, maxRow = Integer.MIN_VALUE;
+		for (Entry<String, Component> e : this.order) {
+			final Component c = e.getValue();
+			if (c instanceof LateRendering) {
+				continue;
+			}
+			minColumn = Math.min(minColumn, Math.floorDiv(c.getPosition().getX(), CELL_SIZE));
+			minRow = Math.min(minRow, Math.floorDiv(c.getPosition().getY(), CELL_SIZE));
+			maxColumn = Math.max(maxColumn, Math.floorDiv(c.getPosition().getX() + c.getWidth(), CELL_SIZE));
+			maxRow = Math.max(maxRow, Math.floorDiv(c.getPosition().getY() + c.getHeight(), CELL_SIZE));
+		}
+		if (minColumn > maxColumn) {
+			this.columns = 0;
+			this.rows = 0;
+			this.cells = new int[0][];
+			return;
+		}
+		this.firstColumn = minColumn;
+		this.firstRow = minRow;
+		this.columns = maxColumn - minColumn + 1;
+		this.rows = maxRow - minRow + 1;
+		final int[] counts = new int[this.columns * this.rows];
+		this.cells = new int[counts.length][];
+		Arrays.fill(this.cells, new int[0]);
+		for (int i = 0; i < this.order.size(); i++) {
+			final Component c = this.order.get(i).getValue();
+			if (c instanceof LateRendering) {
+				continue;
+			}
+			final int left = Math.floorDiv(c.getPosition().getX(), CELL_SIZE) - this.firstColumn;
+			final int top = Math.floorDiv(c.getPosition().getY(), CELL_SIZE) - this.firstRow;
+			final int right = Math.floorDiv(c.getPosition().getX() + c.getWidth(), CELL_SIZE) - this.firstColumn;
+			final int bottom = Math.floorDiv(c.getPosition().getY() + c.getHeight(), CELL_SIZE) - this.firstRow;
+			for (int row = top; row <= bottom; row++) {
+				for (int column = left; column <= right; column++) {
+					final int cell = row * this.columns + column;
+					if (counts[cell] == this.cells[cell].length) {
+						this.cells[cell] = Arrays.copyOf(this.cells[cell], Math.max(4, counts[cell] * 2));
+					}
+					this.cells[cell][counts[cell]++] = i;
+				}
+			}
+		}
+		for (int cell = 0; cell < this.cells.length; cell++) {
+			this.cells[cell] = Arrays.copyOf(this.cells[cell], counts[cell]);
+		}
+	}
+}
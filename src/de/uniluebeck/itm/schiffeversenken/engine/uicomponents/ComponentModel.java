@@ -19,12 +19,65 @@ public class ComponentModel {
 	 */
 	private final Map<String, Component> components;
 
+	/**
+	 * The number of times a component was added or removed using this model
+	 */
+	private volatile long modificationCount;
+
+	/**
+	 * The draw order and the click grid of the components
+	 */
+	private final ComponentIndex index;
+
 	/**
 	 * Use this to create a new component model
 	 * @param c The map mapping strings to components
 	 */
 	public ComponentModel(Map<String, Component> c) {
 		this.components = c;
+		this.modificationCount = 0;
+		this.index = new ComponentIndex(this);
+	}
+
+	/**
+	 * Use this method in order to add a component. The map passed on construction must be modifiable.
+	 * 
+	 * @param name The name of the component
+	 * @param c The component to add
+	 */
+	public void addComponent(String name, Component c) {
+		this.components.put(name, c);
+		this.modificationCount++;
+	}
+
+	/**
+	 * Use this method in order to remove a component. The map passed on construction must be modifiable.
+	 * 
+	 * @param name The name of the component
+	 * @return The removed component or null if there was no such component
+	 */
+	public Component removeComponent(String name) {
+		final Component c = this.components.remove(name);
+		this.modificationCount++;
+		return c;
+	}
+
+	/**
+	 * Use this method in order to check whether components were added or removed.
+	 * 
+	 * @return A number that changes whenever a component was added or removed using this model
+	 */
+	long getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Use this method in order to get the draw order and the click grid of the components.
+	 * 
+	 * @return The index
+	 */
+	ComponentIndex getIndex() {
+		return this.index;
 	}
 
 	/**
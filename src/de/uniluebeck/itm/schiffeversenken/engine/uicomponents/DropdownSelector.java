@@ -208,6 +208,7 @@ public final class DropdownSelector<K> extends Component implements Clickable, D
 								&& clickPosition.getY() <= this.getPosition().getY() + this.getHeight() + this.expandedHeight));
 		if (!hit && this.isCurrentlyExpanded()) {
 			this.expanded = false;
+			this.markDirty();
 		}
 		return hit;
 	}
@@ -220,6 +221,7 @@ public final class DropdownSelector<K> extends Component implements Clickable, D
 		// es also auf jeden fall getroffen hat.
 		if (mouse_y >= comp_y && mouse_y <= comp_y + this.getHeight()) {
 			this.expanded = !this.expanded;
+			this.markDirty();
 			return;
 		}
 		if (this.isCurrentlyExpanded()) {
@@ -229,6 +231,7 @@ public final class DropdownSelector<K> extends Component implements Clickable, D
 					// Wir haben einen sieger
 					this.expanded = false;
 					this.currentSelection = e.getKey();
+					this.markDirty();
 					return;
 				}
 				yOffset += this.lastTextHeight;
@@ -250,6 +253,18 @@ public final class DropdownSelector<K> extends Component implements Clickable, D
 		return this.isCurrentlyExpanded();
 	}
 
+	@Override
+	protected boolean isRetainable() {
+		// The expanded list highlights the entry below the mouse
+		return !this.isCurrentlyExpanded();
+	}
+
+	@Override
+	protected Vec2 getDrawnSize(Canvas c) {
+		// The separator line is as long as the selector is wide
+		return new Vec2(this.getWidth(), Math.max(this.getHeight(), this.getWidth()));
+	}
+
 	/**
 	 * Use this method in order to get the current selected item.
 	 * @return The current selected item as K
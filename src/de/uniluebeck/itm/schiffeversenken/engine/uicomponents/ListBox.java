@@ -95,6 +95,8 @@ public class ListBox<E> extends Component implements Drawable, Clickable {
 
     @Override
     public void performAction() {
+        // The items are about to change
+        this.markDirty();
         final int x = this.getPosition().getX();
         final int y = this.getPosition().getY();
         final int clickX = this.latestClick.getX() - x;
@@ -162,7 +164,8 @@ public class ListBox<E> extends Component implements Drawable, Clickable {
     }
 
     /**
-     * Use this method in order to retrieve the items within this list.
+     * Use this method in order to retrieve the items within this list. Call {@link #markDirty()}
+     * after changing the list or its items, otherwise the list box keeps showing the old ones.
      * @return The items as a list of E
      */
     public List<E> getItems() {
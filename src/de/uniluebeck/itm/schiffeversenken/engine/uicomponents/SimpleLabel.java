@@ -43,4 +43,11 @@ public class SimpleLabel extends Component implements Drawable {
 		c.drawString(x + 5, y + 5 + textDimms.getY(), this.text);
 	}
 
+	@Override
+	protected Vec2 getDrawnSize(Canvas c) {
+		// A label is as large as its text
+		final Vec2 textDimms = c.getTextDimensions(this.text);
+		return new Vec2(textDimms.getX() + 10, textDimms.getY() + 10);
+	}
+
 }
@@ -67,6 +67,7 @@ public class Textbox extends Component implements Drawable, TextInput {
 		if (text != null)
 			this.textBuffer.append(text);
 		this.cursorPosition = this.textBuffer.length();
+		this.markDirty();
 	}
 
 	/**
@@ -125,6 +126,13 @@ public class Textbox extends Component implements Drawable, TextInput {
 	@Override
 	public void notifyActivationStateChanged(boolean newState) {
 		this.cursorEnabled = newState;
+		this.markDirty();
+	}
+
+	@Override
+	protected boolean isRetainable() {
+		// The cursor of an active text box blinks
+		return !this.cursorEnabled;
 	}
 
 	@Override
@@ -173,6 +181,7 @@ public class Textbox extends Component implements Drawable, TextInput {
 					this.cursorPosition++;
 				}
 			} finally {
+				this.markDirty();
 				this.bufferMutex.release();
 			}
 		} catch (InterruptedException e) {
@@ -210,6 +219,7 @@ public class Textbox extends Component implements Drawable, TextInput {
 	protected void setCursorPosition(int newPosition) {
 		this.cursorPosition = newPosition;
 		this.checkCursorConstrains();
+		this.markDirty();
 	}
 
 	@Override
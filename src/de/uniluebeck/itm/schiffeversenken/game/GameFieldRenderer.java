@@ -2,6 +2,7 @@ package de.uniluebeck.itm.schiffeversenken.game;
 
 import de.uniluebeck.itm.schiffeversenken.engine.*;
 import de.uniluebeck.itm.schiffeversenken.game.model.*;
+import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile.FieldTileState;
 /**
  * Game field rendering methods.
  *
@@ -18,16 +19,39 @@ public class GameFieldRenderer {
      */
 	private final GameField field;
 
+    /**
+     * The off-screen image of the board or null if it wasn't created yet
+     */
+    private Canvas boardCache;
+
+    /**
+     * True if the canvas doesn't support off-screen images and the board needs to be drawn directly
+     */
+    private boolean cacheUnsupported;
+
+    /**
+     * The state of every tile (x * height + y) when it was last drawn into the board cache
+     */
+    private FieldTileState[] drawnStates;
+
+    /**
+     * The tile states of the field that is currently rendered or null in order to read the field itself
+     */
+    private GameSnapshot.Field states;
+
     /**
      * Construct a new game field renderer
      * @param field
      */
 	public GameFieldRenderer(GameField field) {
         this.field = field;
+        this.boardCache = null;
+        this.cacheUnsupported = false;
     }
 
     /**
-     * Use this method in order to render a game field.
+     * Use this method in order to render a game field. The board is kept within an off-screen
+     * image and only tiles whose state changed since the last frame get redrawn into it.
      *
      * @param c The canvas to render on.
      * @param x The x coordinate where to render the field.
@@ -35,20 +59,89 @@ public class GameFieldRenderer {
      * 
      */
     public void renderGameField(Canvas c, int x, int y) {
+        renderGameField(c, x, y, null);
+    }
+
+    /**
+     * Use this method in order to render a game field as it was when a snapshot was taken.
+     * Only the tile states are taken from the snapshot as the ships don't move during a game.
+     *
+     * @param c The canvas to render on.
+     * @param x The x coordinate where to render the field.
+     * @param y The y coordinate where to render the field.
+     * @param states The tile states to render or null in order to read the field itself
+     */
+    public void renderGameField(Canvas c, int x, int y, GameSnapshot.Field states) {
+        this.states = states;
+        final int width = Constants.TILE_SIZE * this.field.getSize().getX();
+        final int height = Constants.TILE_SIZE * this.field.getSize().getY();
+
+        if (this.boardCache == null && !this.cacheUnsupported) {
+            // One additional pixel for the border lines at the right and the bottom
+            this.boardCache = c.createCompatibleCanvas(width + 1, height + 1);
+            this.cacheUnsupported = this.boardCache == null;
+            this.drawnStates = new FieldTileState[this.field.getSize().getX() * this.field.getSize().getY()];
+        }
+        if (this.cacheUnsupported) {
+            drawTiles(c, x, y, null);
+            drawGridLines(c, x, y);
+            return;
+        }
+
+        if (drawTiles(this.boardCache, 0, 0, this.drawnStates)) {
+            drawGridLines(this.boardCache, 0, 0);
+        }
+        c.drawCanvas(this.boardCache, x, y);
+    }
+
+    /**
+     * This method draws the tiles of the field.
+     *
+     * @param c The canvas to render on.
+     * @param x The x coordinate where to render the field.
+     * @param y The y coordinate where to render the field.
+     * @param drawnStates The states of the already drawn tiles. Only tiles whose state differs get drawn and
+     *                    their entries are updated. Pass null in order to draw every tile.
+     * @return True if at least one tile was drawn.
+     */
+    private boolean drawTiles(Canvas c, int x, int y, FieldTileState[] drawnStates) {
         final int tileSize = Constants.TILE_SIZE;
+        final int fieldHeight = this.field.getSize().getY();
 
-        // Look up the default water tiles
-        final Tile waterTile = AssetRegistry.getTile("water");
-        final Tile waterMissed = AssetRegistry.getTile("water.hit");
+        // The default water tiles get looked up as soon as the first tile needs to be drawn
+        Tile waterTile = null, waterMissed = null;
 
-        // draw the fields tiles
+        boolean drewTile = false;
         for (int tileX = 0; tileX < this.field.getSize().getX(); tileX++) {
-            for (int tileY = 0; tileY < this.field.getSize().getY(); tileY++) {
+            for (int tileY = 0; tileY < fieldHeight; tileY++) {
+                final FieldTileState state = getTileStateAt(tileX, tileY);
+                if (drawnStates != null) {
+                    if (drawnStates[tileX * fieldHeight + tileY] == state) {
+                        continue;
+                    }
+                    drawnStates[tileX * fieldHeight + tileY] = state;
+                }
+                if (waterTile == null) {
+                    waterTile = AssetRegistry.getTile("water");
+                    waterMissed = AssetRegistry.getTile("water.hit");
+                }
                 final Vec2 tilePosition = new Vec2(x + tileX * tileSize, y + tileY * tileSize);
                 getTileAt(tileX, tileY, waterTile, waterMissed).renderAt(c, tilePosition);
+                drewTile = true;
             }
         }
-        
+        return drewTile;
+    }
+
+    /**
+     * This method draws the border and the lines between the tiles.
+     *
+     * @param c The canvas to render on.
+     * @param x The x coordinate where to render the field.
+     * @param y The y coordinate where to render the field.
+     */
+    private void drawGridLines(Canvas c, int x, int y) {
+        final int tileSize = Constants.TILE_SIZE;
         final int width = tileSize * this.field.getSize().getX();
         final int height = tileSize * this.field.getSize().getY();
 
@@ -91,7 +184,7 @@ public class GameFieldRenderer {
      * @return The correct tile to render
      */
     protected Tile getTileAt(int x, int y, Tile waterTile, Tile waterHitTile) {
-        switch(this.field.getTileAt(x, y).getTilestate()) {
+        switch(getTileStateAt(x, y)) {
             default:
                 return AssetRegistry.getTile("unknown");
             case STATE_WATER:
@@ -115,7 +208,7 @@ public class GameFieldRenderer {
     private Tile lookupShipTile(int x, int y, boolean alreadyHit) {
 
         //initializes a new variable ship with the ship we are currently looking at
-        Ship ship = field.getTileAt(x, y).getCorrespondingShip();
+        Ship ship = field.getShipAt(x, y);
 
         //initializes 4 variables we use to check whether another ship is positioned around the current one
         boolean top = false;
@@ -125,38 +218,40 @@ public class GameFieldRenderer {
 
         //1. if-clause checks for OUT_OF_BOUNDS exceptions, 2. if-clause checks for parts of the same ship
         if (y != 0) {
-            if (ship == field.getTileAt(x, y - 1).getCorrespondingShip()){
+            if (ship == field.getShipAt(x, y - 1)){
                 top = true;
             } 
         }
         if (y != this.field.getSize().getY() - 1){
-            if (ship == field.getTileAt(x, y + 1).getCorrespondingShip()){
+            if (ship == field.getShipAt(x, y + 1)){
                 bottom = true;
             }
         }
         if (x != this.field.getSize().getX() - 1){    
-            if (ship == field.getTileAt(x + 1, y).getCorrespondingShip()){
+            if (ship == field.getShipAt(x + 1, y)){
                 right = true;
             }
         }
         if (x != 0){    
-            if (ship == field.getTileAt(x - 1, y).getCorrespondingShip()){
+            if (ship == field.getShipAt(x - 1, y)){
                 left = true;
             }   
         }
 
-        String key = "";
-        //first check the ships orientation
-        key += (ship.isVertical())                      ?"up.ship" :"right.ship"; 
-        //then check the ship part
-        key += (!top && !bottom) && (!right && !left)   ?".single" :"";
-        key += (!top &&  bottom) || (!right &&  left)   ?".bug" :"";
-        key += ( top &&  bottom) || ( right &&  left)   ?".middle" :"";
-        key += ( top && !bottom) || ( right && !left)   ?".aft" :"";
-        //lastly check if the ship has already been hit
-        key += (alreadyHit)                             ?".hit" :"";
-        //now return our frankenstein variable
-        return AssetRegistry.getTile(key);
+        //the front of vertical ships points up and the front of horizontal ships points to the right
+        final boolean vertical = ship.isVertical();
+        final ShipTiles.Segment segment = vertical ? ShipTiles.Segment.of(top, bottom) : ShipTiles.Segment.of(right, left);
+        return ShipTiles.get(vertical, segment, alreadyHit);
+    }
+
+    /**
+     * Use this method in order to look up the state of a tile that is rendered.
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The state of the tile within the rendered snapshot or the field itself
+     */
+    protected FieldTileState getTileStateAt(int x, int y) {
+        return this.states != null ? this.states.getTileStateAt(x, y) : this.field.getTileStateAt(x, y);
     }
 
     /**
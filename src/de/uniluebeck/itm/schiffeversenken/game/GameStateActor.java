@@ -0,0 +1,247 @@
+package de.uniluebeck.itm.schiffeversenken.game;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+import de.uniluebeck.itm.schiffeversenken.engine.Application;
+import de.uniluebeck.itm.schiffeversenken.game.menues.EndOfGameMenu;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameModel;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
+
+/**
+ * This class owns the state of a running game. All changes of the model are
+ * made by its own thread, one command after another. Other threads only post
+ * commands and read the snapshots the model publishes after every command.
+ */
+public final class GameStateActor {
+
+	/**
+	 * The game model
+	 */
+	private final GameModel model;
+
+	/**
+	 * The commands waiting to be processed
+	 */
+	private final LinkedBlockingQueue<Command> commands;
+
+	/**
+	 * The thread processing the commands
+	 */
+	private final Thread owner;
+
+	/**
+	 * This variable is false once the actor got stopped
+	 */
+	private volatile boolean running;
+
+	/**
+	 * True once the game ended. Only the owner touches it.
+	 */
+	private boolean gameOver;
+
+	/**
+	 * Construct a new actor for a game. It doesn't process anything until it got started.
+	 * @param model The game model
+	 */
+	public GameStateActor(GameModel model) {
+		this.model = model;
+		this.commands = new LinkedBlockingQueue<Command>();
+		this.owner = new Thread(this::processCommands, "Game state actor");
+		// The actor must not keep the application alive
+		this.owner.setDaemon(true);
+		this.running = true;
+		this.gameOver = false;
+	}
+
+	/**
+	 * Use this method in order to start processing commands.
+	 */
+	public void start() {
+		this.owner.start();
+	}
+
+	/**
+	 * Use this method in order to stop the actor. It returns right away, the command
+	 * currently processed gets finished and all waiting ones get dropped. A move the AI
+	 * is currently thinking about gets cut short.
+	 */
+	public void stop() {
+		this.running = false;
+		this.commands.clear();
+		this.model.getAgent().cancel();
+		// Wake the owner up if it is waiting for commands
+		this.commands.add(() -> {
+		});
+	}
+
+	/**
+	 * Use this method in order to let the human player bombard a tile of the opponent's
+	 * field. It is ignored if the tile was already bombarded or the AI is doing its turn.
+	 * @param x The x coordinate of the tile
+	 * @param y The y coordinate of the tile
+	 */
+	public void bombard(int x, int y) {
+		post(new Bombard(x, y));
+	}
+
+	/**
+	 * This method adds a command to the queue.
+	 * @param c The command
+	 */
+	private void post(Command c) {
+		if (this.running) {
+			this.commands.add(c);
+		}
+	}
+
+	/**
+	 * This method gets executed by the owner thread.
+	 */
+	private void processCommands() {
+		try {
+			while (this.running) {
+				final Command c = this.commands.take();
+				if (!this.running) {
+					break;
+				}
+				c.execute();
+			}
+		} catch (InterruptedException e) {
+			Application.log("The game state actor got interrupted.");
+		} catch (Exception e) {
+			Application.crash(e);
+		}
+	}
+
+	/**
+	 * This method checks whether the game is over and posts the end of the game if it is.
+	 * Commands that are already queued get ignored from now on.
+	 * @return True if the game is over
+	 */
+	private boolean handlePossibleGameEnd() {
+		if (this.model.getComputerPlayerField().isFleetDestroyed()) {
+			this.gameOver = true;
+			post(new EndGame(true));
+		} else if (this.model.getHumanPlayerField().isFleetDestroyed()) {
+			this.gameOver = true;
+			post(new EndGame(false));
+		}
+		return this.gameOver;
+	}
+
+	/**
+	 * A command processed by the owner of the game state
+	 */
+	private interface Command {
+
+		/**
+		 * This method performs the command. It gets called by the owner thread only.
+		 */
+		void execute();
+	}
+
+	/**
+	 * The human player bombards a tile of the opponent's field. If it's a miss the AI
+	 * gets its turn.
+	 */
+	private final class Bombard implements Command {
+
+		/**
+		 * The x coordinate of the tile
+		 */
+		private final int x;
+
+		/**
+		 * The y coordinate of the tile
+		 */
+		private final int y;
+
+		/**
+		 * Construct a new bombard command
+		 * @param x The x coordinate of the tile
+		 * @param y The y coordinate of the tile
+		 */
+		private Bombard(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public void execute() {
+			final GameField field = model.getComputerPlayerField();
+			// Fast clicks may have queued several commands, only the first one counts
+			if (gameOver || model.isRoundChanging() || field.wasAlreadyBombarded(this.x, this.y)) {
+				return;
+			}
+			if (field.bombard(this.x, this.y)) {
+				model.addPlayerPoints(Constants.POINTS_FOR_HIT);
+				final Ship s = field.getShipAt(this.x, this.y);
+				if (s.isSunken()) {
+					model.addPlayerPoints(Constants.POINTS_FOR_SHIP_SUNK);
+					handlePossibleGameEnd();
+				}
+			} else {
+				model.setRoundChangingFlag(true);
+				post(new AITurn());
+			}
+			model.publishSnapshot();
+		}
+	}
+
+	/**
+	 * The AI performs a single move. As long as it hits it posts another move, so
+	 * every move gets published and a stop doesn't need to wait for the whole turn.
+	 */
+	private final class AITurn implements Command {
+
+		@Override
+		public void execute() {
+			// A stop cancels the agent, so don't start thinking once it happened
+			if (gameOver || !running) {
+				return;
+			}
+			if (model.getAgent().performMove(model.getHumanPlayerField())) {
+				model.addAiPoints(Constants.POINTS_FOR_HIT);
+				final Ship s = model.getAgent().getLastAttackedTile().getCorrespondingShip();
+				boolean over = false;
+				if (s != null && s.isSunken()) {
+					model.addAiPoints(Constants.POINTS_FOR_SHIP_SUNK);
+					over = handlePossibleGameEnd();
+				}
+				if (!over) {
+					post(new AITurn());
+				}
+			} else {
+				model.increaseRoundCounter();
+				model.setRoundChangingFlag(false);
+			}
+			model.publishSnapshot();
+		}
+	}
+
+	/**
+	 * The game ends and the EndOfGameMenu gets displayed.
+	 */
+	private final class EndGame implements Command {
+
+		/**
+		 * True if the player won
+		 */
+		private final boolean playerWon;
+
+		/**
+		 * Construct a new end game command
+		 * @param playerWon Pass true if the player won and false if the computer won.
+		 */
+		private EndGame(boolean playerWon) {
+			this.playerWon = playerWon;
+		}
+
+		@Override
+		public void execute() {
+			Application.log("Ending game.");
+			Application.switchToScene(new EndOfGameMenu(model, this.playerWon).getScene());
+		}
+	}
+}
@@ -4,6 +4,7 @@ import de.uniluebeck.itm.schiffeversenken.engine.Canvas;
 import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
 import de.uniluebeck.itm.schiffeversenken.engine.View;
 import de.uniluebeck.itm.schiffeversenken.game.model.GameModel;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameSnapshot;
 import de.uniluebeck.itm.schiffeversenken.engine.*;
 
 /**
@@ -41,14 +42,16 @@ public class GameView extends View<GameModel> {
         final int offsetX = 10, offsetY = 35;
 
         final GameModel model = this.getModelInstance();
+        // Everything shown within this frame is taken from the same state of the game
+        final GameSnapshot snapshot = model.getSnapshot();
         final Vec2 gameFieldDimensions = model.getHumanPlayerField().getSize(); 
 
         final int fieldsWidth = gameFieldDimensions.getX() * Constants.TILE_SIZE;
         final int fieldsHeight = gameFieldDimensions.getY() * Constants.TILE_SIZE;
         final int opponentsFieldX = offsetX + fieldsWidth + 10;
         final int opponentsFieldY = offsetY + fieldsHeight + 35;
-        this.fieldRenderer.renderGameField(c, offsetX, offsetY);
-        this.opponentFieldRenderer.renderGameField(c, opponentsFieldX, offsetY);
+        this.fieldRenderer.renderGameField(c, offsetX, offsetY, snapshot.getHumanPlayerField());
+        this.opponentFieldRenderer.renderGameField(c, opponentsFieldX, offsetY, snapshot.getComputerPlayerField());
         this.opponentFieldRenderer.renderMouseOver(c, mouseLocation.getX(), mouseLocation.getY(), opponentsFieldX, opponentsFieldY); 
         model.updateOpponentsFieldOnScreenData(new Vec2(opponentsFieldX, offsetY),
                 new Vec2(fieldsWidth, fieldsHeight));
@@ -56,7 +59,7 @@ public class GameView extends View<GameModel> {
         c.setColor(0.7, 0.7, 0.7);
         c.drawRoundRect(frameWidth - 280 - offsetX, offsetY, 280, frameHeight - offsetY - 100, 5, 5);
 
-        final int[] numbers = new int[]{model.getRoundCounter(), model.getPlayerPoints(), model.getAiPoints()};
+        final int[] numbers = new int[]{snapshot.getRoundCounter(), snapshot.getPlayerPoints(), snapshot.getAiPoints()};
         final String[] labels = new String[]{"Round: ", "Your points", "Computers points"};
         for (int i = 0; i < numbers.length; i++) {
             draw7segNumberAt(c, frameWidth - offsetX - 45,
@@ -65,7 +68,7 @@ public class GameView extends View<GameModel> {
         }
 
 
-        if(model.isRoundChanging()) {
+        if(snapshot.isRoundChanging()) {
             c.setColor(0.7, 0.7, 0.7, 0.7);
             c.fillRect(0, 0, frameWidth, frameHeight);
             c.setColor(0, 0, 0);
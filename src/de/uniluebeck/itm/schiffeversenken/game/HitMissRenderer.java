@@ -30,7 +30,7 @@ public class HitMissRenderer extends GameFieldRenderer{
      */
     @Override
     protected Tile getTileAt(int x, int y, Tile waterTile, Tile waterHitTile) {
-        switch(this.getField().getTileAt(x, y).getTilestate()) {
+        switch(this.getTileStateAt(x, y)) {
             default:
                 return AssetRegistry.getTile("unknown");
             case STATE_SHIP:
@@ -0,0 +1,108 @@
+package de.uniluebeck.itm.schiffeversenken.game;
+
+import de.uniluebeck.itm.schiffeversenken.engine.AssetRegistry;
+import de.uniluebeck.itm.schiffeversenken.engine.Tile;
+
+/**
+ * This class holds the tiles of all ship parts in a table indexed by the
+ * orientation of the ship, the kind of the part and whether it was hit, so
+ * rendering a ship doesn't need to build asset keys.
+ */
+public final class ShipTiles {
+
+    /**
+     * The parts a ship is composed of
+     */
+    public enum Segment {
+        /**
+         * A ship consisting of a single tile
+         */
+        SINGLE("single"),
+        /**
+         * The front of a ship (the top of vertical and the right end of horizontal ships)
+         */
+        BUG("bug"),
+        /**
+         * A part between the front and the back of a ship
+         */
+        MIDDLE("middle"),
+        /**
+         * The back of a ship
+         */
+        AFT("aft");
+
+        /**
+         * The name of the part within the asset keys
+         */
+        private final String assetName;
+
+        /**
+         * Construct a new segment
+         *
+         * @param assetName The name of the part within the asset keys
+         */
+        Segment(String assetName) {
+            this.assetName = assetName;
+        }
+
+        /**
+         * Use this method in order to find out which part a tile is.
+         *
+         * @param partTowardsBug True if the ship continues towards its front
+         * @param partTowardsAft True if the ship continues towards its back
+         * @return The segment of the tile
+         */
+        public static Segment of(boolean partTowardsBug, boolean partTowardsAft) {
+            if (partTowardsBug) {
+                return partTowardsAft ? MIDDLE : AFT;
+            }
+            return partTowardsAft ? BUG : SINGLE;
+        }
+    }
+
+    /**
+     * The tiles indexed by [vertical][segment][hit] or null if they weren't looked up yet
+     */
+    private static volatile Tile[][][] table = null;
+
+    /**
+     * This class only contains static methods
+     */
+    private ShipTiles() {
+    }
+
+    /**
+     * Call this method once all ship tiles are registered within the AssetRegistry in
+     * order to fill the table.
+     */
+    public static void load() {
+        final Segment[] segments = Segment.values();
+        final Tile[][][] newTable = new Tile[2][segments.length][2];
+        for (int vertical = 0; vertical < 2; vertical++) {
+            for (Segment s : segments) {
+                for (int hit = 0; hit < 2; hit++) {
+                    newTable[vertical][s.ordinal()][hit] = AssetRegistry.getTile((vertical == 1 ? "up" : "right")
+                            + ".ship." + s.assetName + (hit == 1 ? ".hit" : ""));
+                }
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * Use this method in order to get the tile of a ship part.
+     *
+     * @param vertical True if the ship is vertical
+     * @param segment The part of the ship
+     * @param hit True if the part was hit
+     * @return The tile to render
+     */
+    public static Tile get(boolean vertical, Segment segment, boolean hit) {
+        Tile[][][] t = table;
+        if (t == null) {
+            load();
+            t = table;
+        }
+        return t[vertical ? 1 : 0][segment.ordinal()][hit ? 1 : 0];
+    }
+}
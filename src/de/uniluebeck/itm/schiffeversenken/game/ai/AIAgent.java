@@ -3,10 +3,9 @@ package de.uniluebeck.itm.schiffeversenken.game.ai;
 import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile;
 import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
 import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
-import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
 import de.uniluebeck.itm.schiffeversenken.game.model.GameModel;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * This class provides the blueprint and basic behavior for every AI agent
@@ -21,6 +20,11 @@ public abstract class AIAgent {
      */
 	private final int hardness;
 
+    /**
+     * The random number stream of the agent
+     */
+    private SplittableRandom random = new SplittableRandom();
+
     /**
      * Construct a new AI agent
      * 
@@ -30,6 +34,43 @@ public abstract class AIAgent {
         this.hardness = hardness;
     }
 
+    /**
+     * Use this method in order to create the agent belonging to a difficulty.
+     * Unknown difficulties result in the easy agent.
+     * @param hardness The difficulty of the AI
+     * @return The new agent
+     */
+    public static AIAgent forHardness(int hardness) {
+        switch (hardness) {
+            case 1:
+                return new HardAIAgent(1);
+            case 2:
+                return new MonteCarloAIAgent(2);
+            case 3:
+                return new DensityAIAgent(3);
+            case 0:
+            default:
+                return new EasyAIAgent(0);
+        }
+    }
+
+    /**
+     * Use this method in order to seed the agents random number stream. Call it before
+     * {@link #setup(Ruleset, GameField)} in order to make the game reproducible.
+     * @param seed The seed of the stream
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Use this method in order to access the agents random number stream.
+     * @return The random number generator of this agent
+     */
+    protected SplittableRandom getRandom() {
+        return this.random;
+    }
+
     /**
      * Use this method in order to initialize the agent. It needs to place his ships now.
      * @param r The rule set of the game.
@@ -45,109 +86,20 @@ public abstract class AIAgent {
     public abstract boolean performMove(GameField playersField);
 
     /**
-     * Call this method from within a setup method in order to conveniently place your ships.
-     * @param r The rule set to obey
-     * @param f The field to place the ships on
+     * Use this method in order to tell the agent that the game got left. A move that is
+     * currently thinking should finish as soon as possible. The default does nothing.
      */
-    protected void placeShipsAccordingToRules (Ruleset r, GameField f) {
-
-        final int width = r.getGameFieldSize().getX();
-        final int height = r.getGameFieldSize().getY();
-
-        final int[] shipsToBePlaced = new int[] {
-                r.getNumberOf1Ships(),
-                r.getNumberOf2Ships(),
-                r.getNumberOf3Ships(),
-                r.getNumberOf4Ships(),
-                r.getNumberOf5Ships()};
-
-        final Random rnd = new Random(System.currentTimeMillis());
-
-        for (int shipsLengthIndex = 0; shipsLengthIndex < shipsToBePlaced.length; shipsLengthIndex++) {
-            for (int ship = 0; ship < shipsToBePlaced[shipsLengthIndex]; ship++) {
-                while (!checkAndPlace(f, rnd.nextBoolean(), rnd.nextInt(width),
-                        rnd.nextInt(height), shipsLengthIndex + 1, width, height, r.getSocialDistance()));
-            }
-        }
+    public void cancel() {
     }
 
     /**
-     * Use this method to correctly place a ship
-     * @param f the game field of the AI
-     * @param up the orientation of the ship
-     * @param x the x coordinate of the ship
-     * @param y the y coordinate of the ship
-     * @param length the length of the ship
-     * @param width the width of the AI player field
-     * @param height the height of the AI player field
-     * @param covid the information whether social distancing is needed
-     * @return Has the ship successfully been placed?
+     * Call this method from within a setup method in order to conveniently place your ships.
+     * @param r The rule set to obey
+     * @param f The field to place the ships on
+     * @throws RuntimeException if the fleet of the rule set can't be placed on the field
      */
-    private boolean checkAndPlace(GameField f, boolean up, int x, int y, int length, int width, int height, boolean covid) {
-        if ((up && y + length > height) || (!up && x + length > width)) {
-            return false;
-        }
-
-        if (covid){
-                //checks for orientation of the ship, goes into this path if the ship is vertical
-            if (up) {
-                //nested for loop to parse over the 3xShipLength field from top left to bottom right
-                for (int j = -1; j < 2; j++){
-                    for (int currentShipsX = x + j, currentShipsY = y - 1, i = 0; i < length + 2; i++){
-                        //sanity check for out of bounds exceptions if the ship is placed close to the field borders
-                        if (((currentShipsX < 15)&&(currentShipsX >= 0)) 
-                        && ((currentShipsY < 15)&&(currentShipsY >= 0))) {
-                            //gets the tile at the current position and checks for other ships
-                            final FieldTile t = f.getTileAt(currentShipsX, currentShipsY);
-                            if (t.getTilestate() != FieldTile.FieldTileState.STATE_WATER || t.getCorrespondingShip() != null) {
-                                return false;
-                            }
-                            currentShipsY++;
-                        }
-                        else {
-                            currentShipsY++;
-                            }		
-                    }
-                }	
-            }
-            //goes into this path if the ship is horizontal
-            else {
-                //nested for loop to parse over the 3xShipLength field from top left to bottom right
-                for (int j = -1; j < 2; j++){
-                    for (int currentShipsX = x - 1, currentShipsY = y + j, i = 0; i < length + 2; i++){
-                        //sanity check for out of bounds exceptions if the ship is placed close to the field borders
-                        if (((currentShipsX < f.getSize().getX())&&(currentShipsX >= 0)) 
-                        && ((currentShipsY < f.getSize().getY())&&(currentShipsY >= 0))) {
-                            //gets the tile at the current position and checks for other ships
-                            final FieldTile t = f.getTileAt(currentShipsX, currentShipsY);
-                            if (t.getTilestate() != FieldTile.FieldTileState.STATE_WATER || t.getCorrespondingShip() != null) {
-                                return false;
-                            }
-                            currentShipsX++;
-                        }
-                        else {
-                            currentShipsX++;
-                            }		
-                    }
-                }	 
-            }
-        }
-    else{       
-        for(int currentShipsX = x, currentShipsY = y, i = 0; i < length; i++) {
-            final FieldTile t = f.getTileAt(currentShipsX, currentShipsY);
-            if (t.getTilestate() != FieldTile.FieldTileState.STATE_WATER || t.getCorrespondingShip() != null) {
-                return false;
-            }
-            if (up) {
-                currentShipsY++;
-            } else {
-                currentShipsX++;
-            }
-        }
-    }
-        final Ship shipToPlace = new Ship(length, up);
-        f.placeShip(x, y, length, up, shipToPlace);
-        return true;
+    protected void placeShipsAccordingToRules (Ruleset r, GameField f) {
+        new FleetPlacer(r, this.random).placeFleet(f);
     }
 
     /**
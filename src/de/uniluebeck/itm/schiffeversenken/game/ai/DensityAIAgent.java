@@ -0,0 +1,416 @@
+package de.uniluebeck.itm.schiffeversenken.game.ai;
+
+import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
+
+/**
+ * This class represents an AI agent that keeps a heat map over the players
+ * field. For every cell it counts how many positions of the remaining fleet
+ * could cover it and fires at the most likely one. The heat map is updated
+ * incrementally: bombarding a cell only touches the positions running through
+ * it instead of recomputing the whole map.
+ */
+public class DensityAIAgent extends AIAgent {
+
+    /**
+     * The longest ship length supported by the rule sets
+     */
+    private static final int MAX_SHIP_LENGTH = 5;
+
+    /**
+     * The cell was not bombarded yet
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * The cell was bombarded and contained water or it is known to contain water
+     */
+    private static final byte WATER = 1;
+
+    /**
+     * The cell contains a hit ship that is not sunken yet
+     */
+    private static final byte HIT = 2;
+
+    /**
+     * The cell contains a sunken ship
+     */
+    private static final byte SUNK = 3;
+
+    /**
+     * The rule set of the game
+     */
+    private Ruleset rules;
+
+    /**
+     * The field the heat map belongs to
+     */
+    private GameField trackedField;
+
+    /**
+     * The width of the tracked field
+     */
+    private int width;
+
+    /**
+     * The height of the tracked field
+     */
+    private int height;
+
+    /**
+     * The known state of every cell of the tracked field
+     */
+    private byte[] cells;
+
+    /**
+     * For every ship length and every cell the number of possible positions of
+     * such a ship covering the cell
+     */
+    private int[][] coverage;
+
+    /**
+     * The number of ships per length that are still afloat
+     */
+    private int[] remainingShips;
+
+    /**
+     * The cells containing hits on ships that are not sunken yet
+     */
+    private int[] openHits;
+
+    /**
+     * The number of entries within openHits
+     */
+    private int openHitCount;
+
+    /**
+     * The scores of the cells next to open hits while targeting
+     */
+    private long[] targetScores;
+
+    /**
+     * The cells with a non zero target score
+     */
+    private int[] touchedTargets;
+
+    /**
+     * The last field tile bombarded by the AI
+     */
+    private FieldTile lastTile;
+
+    /**
+     * Construct a new density AI agent
+     *
+     * @param hardness The difficulty of the AI
+     */
+    public DensityAIAgent(int hardness) {
+        super(hardness);
+    }
+
+    @Override
+    public void setup(Ruleset r, GameField agentsField) {
+        this.rules = r;
+        this.placeShipsAccordingToRules(r, agentsField);
+    }
+
+    @Override
+    public boolean performMove(GameField playersField) {
+        if (this.trackedField != playersField) {
+            initialize(playersField);
+        }
+
+        int cell = this.openHitCount > 0 ? pickTarget() : -1;
+        if (cell < 0) {
+            cell = pickByDensity();
+        }
+        final int x = cell % this.width, y = cell / this.width;
+        this.lastTile = playersField.getTileAt(x, y);
+        final boolean hit = playersField.bombard(x, y);
+        if (hit) {
+            this.cells[cell] = HIT;
+            this.openHits[this.openHitCount++] = cell;
+            final Ship ship = playersField.getShipAt(x, y);
+            if (ship.isSunken()) {
+                shipSunk(playersField, ship, x, y);
+            }
+        } else {
+            block(cell, WATER);
+        }
+        return hit;
+    }
+
+    /**
+     * This method builds the heat map of a new field.
+     *
+     * @param f The field to track
+     */
+    private void initialize(GameField f) {
+        this.trackedField = f;
+        this.width = f.getSize().getX();
+        this.height = f.getSize().getY();
+        this.cells = new byte[this.width * this.height];
+        this.coverage = new int[MAX_SHIP_LENGTH + 1][];
+        this.remainingShips = new int[MAX_SHIP_LENGTH + 1];
+        this.openHits = new int[this.width * this.height];
+        this.openHitCount = 0;
+        this.targetScores = new long[this.width * this.height];
+        this.touchedTargets = new int[this.width * this.height];
+
+        if (this.rules != null) {
+            for (int length : FleetPlacer.fleetOf(this.rules)) {
+                this.remainingShips[length]++;
+            }
+        } else {
+            // Without a rule set we can only guess the fleet from the field itself
+            for (Ship s : f.getShips()) {
+                this.remainingShips[s.getLength()]++;
+            }
+        }
+
+        for (int length = 1; length <= MAX_SHIP_LENGTH; length++) {
+            if (this.remainingShips[length] == 0) {
+                continue;
+            }
+            final int[] map = new int[this.width * this.height];
+            for (int up = 0; up < (length == 1 ? 1 : 2); up++) {
+                final int step = up == 1 ? this.width : 1;
+                for (int y = 0; y + (up == 1 ? length : 1) <= this.height; y++) {
+                    for (int x = 0; x + (up == 1 ? 1 : length) <= this.width; x++) {
+                        for (int i = 0, c = y * this.width + x; i < length; i++, c += step) {
+                            map[c]++;
+                        }
+                    }
+                }
+            }
+            this.coverage[length] = map;
+        }
+
+        // Learn what was bombarded before we took over
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                if (!f.wasAlreadyBombarded(x, y)) {
+                    continue;
+                }
+                final Ship s = f.getShipAt(x, y);
+                if (s == null) {
+                    block(y * this.width + x, WATER);
+                } else if (this.cells[y * this.width + x] == UNKNOWN) {
+                    this.cells[y * this.width + x] = HIT;
+                    this.openHits[this.openHitCount++] = y * this.width + x;
+                    if (s.isSunken()) {
+                        shipSunk(f, s, x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method updates the heat map after a ship was sunk.
+     *
+     * @param f The tracked field
+     * @param ship The sunken ship
+     * @param x The x coordinate of the sinking hit
+     * @param y The y coordinate of the sinking hit
+     */
+    private void shipSunk(GameField f, Ship ship, int x, int y) {
+        final int dx = ship.isVertical() ? 0 : 1, dy = ship.isVertical() ? 1 : 0;
+        // Walk back to the first tile of the ship
+        int startX = x, startY = y;
+        while (startX - dx >= 0 && startY - dy >= 0 && f.getShipAt(startX - dx, startY - dy) == ship) {
+            startX -= dx;
+            startY -= dy;
+        }
+        final int length = ship.getLength();
+        for (int i = 0; i < length; i++) {
+            final int cell = (startY + i * dy) * this.width + startX + i * dx;
+            removeOpenHit(cell);
+            block(cell, SUNK);
+        }
+        if (this.rules != null && this.rules.getSocialDistance()) {
+            // No other ship may touch the sunken one so its surroundings are water
+            for (int haloY = startY - 1; haloY <= startY + (length - 1) * dy + 1; haloY++) {
+                for (int haloX = startX - 1; haloX <= startX + (length - 1) * dx + 1; haloX++) {
+                    if (haloX >= 0 && haloY >= 0 && haloX < this.width && haloY < this.height
+                            && this.cells[haloY * this.width + haloX] == UNKNOWN) {
+                        block(haloY * this.width + haloX, WATER);
+                    }
+                }
+            }
+        }
+        if (length <= MAX_SHIP_LENGTH && this.remainingShips[length] > 0) {
+            this.remainingShips[length]--;
+        }
+    }
+
+    /**
+     * This method removes a cell from the open hits.
+     *
+     * @param cell The cell to remove
+     */
+    private void removeOpenHit(int cell) {
+        for (int i = 0; i < this.openHitCount; i++) {
+            if (this.openHits[i] == cell) {
+                this.openHits[i] = this.openHits[--this.openHitCount];
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method marks a cell as unable to hold an afloat ship and removes all ship
+     * positions running through it from the heat map.
+     *
+     * @param cell The cell to block
+     * @param state The new state of the cell
+     */
+    private void block(int cell, byte state) {
+        if (this.cells[cell] == WATER || this.cells[cell] == SUNK) {
+            this.cells[cell] = state;
+            return;
+        }
+        final int x = cell % this.width, y = cell / this.width;
+        for (int length = 1; length <= MAX_SHIP_LENGTH; length++) {
+            final int[] map = this.coverage[length];
+            if (map == null) {
+                continue;
+            }
+            for (int up = 0; up < (length == 1 ? 1 : 2); up++) {
+                final int step = up == 1 ? this.width : 1;
+                for (int offset = 0; offset < length; offset++) {
+                    final int startX = up == 1 ? x : x - offset, startY = up == 1 ? y - offset : y;
+                    if (startX < 0 || startY < 0 || (up == 1 ? startY + length > this.height : startX + length > this.width)) {
+                        continue;
+                    }
+                    final int start = startY * this.width + startX;
+                    if (!isOpen(start, length, step)) {
+                        continue;
+                    }
+                    for (int i = 0, c = start; i < length; i++, c += step) {
+                        map[c]--;
+                    }
+                }
+            }
+        }
+        this.cells[cell] = state;
+    }
+
+    /**
+     * This method checks whether a ship position contains only cells that may
+     * still hold an afloat ship.
+     *
+     * @param start The first cell of the position
+     * @param length The length of the ship
+     * @param step The distance between two cells of the position
+     * @return True if the position is still possible
+     */
+    private boolean isOpen(int start, int length, int step) {
+        for (int i = 0, c = start; i < length; i++, c += step) {
+            if (this.cells[c] == WATER || this.cells[c] == SUNK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method picks the unknown cell covered by the most possible ship
+     * positions. Ties are broken randomly.
+     *
+     * @return The chosen cell
+     */
+    private int pickByDensity() {
+        long best = -1;
+        int bestCell = -1, ties = 0;
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            if (this.cells[cell] != UNKNOWN) {
+                continue;
+            }
+            long density = 0;
+            for (int length = 1; length <= MAX_SHIP_LENGTH; length++) {
+                if (this.remainingShips[length] > 0) {
+                    density += (long) this.remainingShips[length] * this.coverage[length][cell];
+                }
+            }
+            if (density > best) {
+                best = density;
+                bestCell = cell;
+                ties = 1;
+            } else if (density == best && getRandom().nextInt(++ties) == 0) {
+                bestCell = cell;
+            }
+        }
+        if (bestCell < 0) {
+            throw new RuntimeException("There is no tile left to bombard");
+        }
+        return bestCell;
+    }
+
+    /**
+     * This method scores the unknown cells around the open hits by the number of
+     * possible ship positions running through them and a hit.
+     *
+     * @return The best cell or -1 if no possible position touches an open hit
+     */
+    private int pickTarget() {
+        int touched = 0;
+        for (int h = 0; h < this.openHitCount; h++) {
+            final int hit = this.openHits[h];
+            final int x = hit % this.width, y = hit / this.width;
+            for (int length = 2; length <= MAX_SHIP_LENGTH; length++) {
+                if (this.remainingShips[length] == 0) {
+                    continue;
+                }
+                for (int up = 0; up < 2; up++) {
+                    final int step = up == 1 ? this.width : 1;
+                    for (int offset = 0; offset < length; offset++) {
+                        final int startX = up == 1 ? x : x - offset, startY = up == 1 ? y - offset : y;
+                        if (startX < 0 || startY < 0
+                                || (up == 1 ? startY + length > this.height : startX + length > this.width)) {
+                            continue;
+                        }
+                        final int start = startY * this.width + startX;
+                        if (!isOpen(start, length, step)) {
+                            continue;
+                        }
+                        // Positions through several hits are far more likely
+                        int hits = 0;
+                        for (int i = 0, c = start; i < length; i++, c += step) {
+                            if (this.cells[c] == HIT) {
+                                hits++;
+                            }
+                        }
+                        final long weight = (long) this.remainingShips[length] * hits * hits;
+                        for (int i = 0, c = start; i < length; i++, c += step) {
+                            if (this.cells[c] == UNKNOWN) {
+                                if (this.targetScores[c] == 0) {
+                                    this.touchedTargets[touched++] = c;
+                                }
+                                this.targetScores[c] += weight;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        long best = 0;
+        int bestCell = -1;
+        for (int i = 0; i < touched; i++) {
+            final int c = this.touchedTargets[i];
+            if (this.targetScores[c] > best) {
+                best = this.targetScores[c];
+                bestCell = c;
+            }
+            this.targetScores[c] = 0;
+        }
+        return bestCell;
+    }
+
+    @Override
+    public FieldTile getLastAttackedTile() {
+        return this.lastTile;
+    }
+}
@@ -4,10 +4,8 @@ import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile;
 import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
 import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
 
-import java.util.Random;
-
 /**
- * The class represents  easy AI that randomly bombards the player field until it hits a tile that
+ * The class represents  easy AI that randomly bombards a tile of the player field that
  * hasn't been bombarded yet
  * 
  * @author leondietrich
@@ -36,15 +34,13 @@ public class EasyAIAgent extends AIAgent {
 
     @Override
     public boolean performMove(GameField playersField) {
-        final Random rnd = new Random(System.currentTimeMillis());
-        final int fieldWidth = playersField.getSize().getX();
-        final int fieldHeight = playersField.getSize().getY();
-        FieldTile tile;
-        do {
-            tile = playersField.getTileAt(rnd.nextInt(fieldWidth), rnd.nextInt(fieldHeight));
-        } while (tile.wasAlreadyBombarded());
-        this.lastTile = tile;
-        return tile.bombard();
+        final int cell = playersField.pickUnbombardedCell(getRandom());
+        if (cell < 0) {
+            throw new RuntimeException("There is no tile left to bombard");
+        }
+        final int x = cell % playersField.getSize().getX(), y = cell / playersField.getSize().getX();
+        this.lastTile = playersField.getTileAt(x, y);
+        return playersField.bombard(x, y);
     }
 
     @Override
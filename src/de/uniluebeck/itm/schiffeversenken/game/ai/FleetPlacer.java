@@ -0,0 +1,396 @@
+package de.uniluebeck.itm.schiffeversenken.game.ai;
+
+import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
+import de.uniluebeck.itm.schiffeversenken.game.model.PlacementMask;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class places a whole fleet on a game field. Instead of trying random
+ * positions until a ship fits it enumerates the legal positions of every ship,
+ * picks one of them uniformly and backtracks if a later ship doesn't fit
+ * anymore. The positions are checked against the placement mask of the field,
+ * one copy per placed ship so backtracking just drops the latest copy.
+ * <p>
+ * Ships of the same length are interchangeable, so each of them has to take a
+ * position ranked after the one of its predecessor. The ranks are a random
+ * permutation of all positions, which keeps the layouts free of any spatial
+ * bias. After every ship the search makes sure each remaining length still has
+ * a legal position and backtracks right away otherwise. A search that got stuck
+ * in a bad corner starts over with a doubled budget. If half of the work is used
+ * up a last search fills the field row by row, always taking the first legal
+ * position, which finds the rare crowded layouts the random searches miss. The
+ * total work is bounded by {@link #MAX_ATTEMPTS}, so a fleet that doesn't fit
+ * fails within a fraction of a second instead of blocking the game.
+ */
+public final class FleetPlacer {
+
+    /**
+     * The number of ship positions tried before the first restart of the search
+     */
+    public static final int RESTART_ATTEMPTS = 10000;
+
+    /**
+     * The number of ship positions tried by all searches together before the fleet
+     * is reported as not fitting
+     */
+    public static final int MAX_ATTEMPTS = 200000;
+
+    /**
+     * The width of the field
+     */
+    private final int width;
+
+    /**
+     * The height of the field
+     */
+    private final int height;
+
+    /**
+     * The variable determining whether ships need to social distance or not
+     */
+    private final boolean socialDistance;
+
+    /**
+     * The lengths of the ships to place, longest first
+     */
+    private final int[] lengths;
+
+    /**
+     * The random number generator used to pick positions
+     */
+    private final RandomGenerator rnd;
+
+    /**
+     * The placement mask before every ship. Entry i contains the field and the
+     * ships 0 to i - 1.
+     */
+    private final PlacementMask[] masks;
+
+    /**
+     * The positions in the order of their rank. A position is encoded as
+     * (y * width + x) * 2 + (up ? 1 : 0).
+     */
+    private final int[] order;
+
+    /**
+     * The rank of the chosen position of every ship
+     */
+    private final int[] chosen;
+
+    /**
+     * The ranks of the already tried positions of every ship, sorted ascending
+     */
+    private final int[][] tried;
+
+    /**
+     * The number of already tried positions of every ship
+     */
+    private final int[] triedCount;
+
+    /**
+     * The ranks of the positions a ship may currently pick from
+     */
+    private final int[] candidates;
+
+    /**
+     * Construct a new fleet placer
+     *
+     * @param r The rule set providing the field size, the fleet and the distancing rule
+     * @param rnd The random number generator to use
+     */
+    public FleetPlacer(Ruleset r, RandomGenerator rnd) {
+        this.width = r.getGameFieldSize().getX();
+        this.height = r.getGameFieldSize().getY();
+        this.socialDistance = r.getSocialDistance();
+        this.lengths = fleetOf(r);
+        this.rnd = rnd;
+        this.masks = new PlacementMask[this.lengths.length + 1];
+        this.order = new int[this.width * this.height * 2];
+        for (int i = 0; i < this.order.length; i++) {
+            this.order[i] = i;
+        }
+        this.chosen = new int[this.lengths.length];
+        this.tried = new int[this.lengths.length][];
+        this.triedCount = new int[this.lengths.length];
+        this.candidates = new int[this.order.length];
+    }
+
+    /**
+     * Use this method in order to get the ship lengths required by a rule set.
+     *
+     * @param r The rule set
+     * @return The lengths of all ships, longest first
+     */
+    public static int[] fleetOf(Ruleset r) {
+        final int[] shipsPerLength = new int[] {
+                r.getNumberOf1Ships(),
+                r.getNumberOf2Ships(),
+                r.getNumberOf3Ships(),
+                r.getNumberOf4Ships(),
+                r.getNumberOf5Ships()};
+        int count = 0;
+        for (int n : shipsPerLength) {
+            count += n;
+        }
+        final int[] fleet = new int[count];
+        for (int length = shipsPerLength.length, i = 0; length > 0; length--) {
+            for (int ship = 0; ship < shipsPerLength[length - 1]; ship++) {
+                fleet[i++] = length;
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Use this method in order to cheaply check whether the fleet of a rule set can
+     * fit onto its field at all. A rule set failing this check can never be
+     * placed, while passing it doesn't guarantee a placement exists.
+     *
+     * @param r The rule set to check
+     * @return False if the fleet definitely doesn't fit
+     */
+    public static boolean mightFit(Ruleset r) {
+        return mightFit(fleetOf(r), r.getGameFieldSize().getX(), r.getGameFieldSize().getY(), r.getSocialDistance());
+    }
+
+    /**
+     * This method checks the cheap necessary conditions for a fleet to fit onto a field.
+     *
+     * @param lengths The lengths of the ships
+     * @param width The width of the field
+     * @param height The height of the field
+     * @param socialDistance Do ships need to social distance?
+     * @return False if the fleet definitely doesn't fit
+     */
+    private static boolean mightFit(int[] lengths, int width, int height, boolean socialDistance) {
+        long requiredArea = 0;
+        for (int length : lengths) {
+            if (length > Math.max(width, height)) {
+                return false;
+            }
+            // With distancing every ship claims a (length + 1) x 2 block of a field that is one tile larger
+            requiredArea += socialDistance ? 2L * (length + 1) : length;
+        }
+        final long availableArea = socialDistance ? (long) (width + 1) * (height + 1) : (long) width * height;
+        return requiredArea <= availableArea;
+    }
+
+    /**
+     * Use this method in order to place the whole fleet onto the given field. Ships
+     * that already are on the field are respected.
+     *
+     * @param f The field to place the ships on
+     * @throws RuntimeException if the fleet does not fit onto the field
+     */
+    public void placeFleet(GameField f) {
+        if (f.getSize().getX() != this.width || f.getSize().getY() != this.height) {
+            throw new RuntimeException("The field size doesn't match the rule set");
+        }
+        if (!mightFit(this.lengths, this.width, this.height, this.socialDistance)) {
+            throw new RuntimeException("The fleet does not fit this rule set: its ships take more space than the "
+                    + this.width + "x" + this.height + " field has");
+        }
+        this.masks[0] = f.copyPlacementMask(this.socialDistance);
+        for (int i = 1; i < this.masks.length; i++) {
+            this.masks[i] = this.masks[0].copy();
+        }
+
+        int result = this.lengths.length == 0 ? 1 : 0;
+        // Restart with a doubled budget until a search succeeds, tried everything or used up half of the work
+        long left = MAX_ATTEMPTS;
+        for (long budget = RESTART_ATTEMPTS; result == 0 && left > MAX_ATTEMPTS / 2; budget *= 2) {
+            shuffleOrder();
+            final long attempts = Math.min(budget, left - MAX_ATTEMPTS / 2);
+            result = search(attempts, false);
+            left -= attempts;
+        }
+        if (result == 0) {
+            // Crowded fleets are found far more easily by filling the field row by row
+            for (int i = 0; i < this.order.length; i++) {
+                this.order[i] = i;
+            }
+            result = search(left, true);
+        }
+        if (result < 0) {
+            throw new RuntimeException("The fleet does not fit this rule set: there is no placement on the "
+                    + this.width + "x" + this.height + " field");
+        } else if (result == 0) {
+            throw new RuntimeException("The fleet does not fit this rule set: no placement on the "
+                    + this.width + "x" + this.height + " field was found within " + MAX_ATTEMPTS + " attempts");
+        }
+        for (int i = 0; i < this.lengths.length; i++) {
+            final int position = this.order[this.chosen[i]] >>> 1;
+            final boolean up = (this.order[this.chosen[i]] & 1) == 1
+                    || (this.lengths[i] == 1 && this.rnd.nextBoolean());
+            f.placeShip(position % this.width, position / this.width, this.lengths[i], up,
+                    new Ship(this.lengths[i], up));
+        }
+    }
+
+    /**
+     * This method draws a new random rank for every position.
+     */
+    private void shuffleOrder() {
+        for (int i = this.order.length - 1; i > 0; i--) {
+            final int j = this.rnd.nextInt(i + 1);
+            final int swap = this.order[i];
+            this.order[i] = this.order[j];
+            this.order[j] = swap;
+        }
+    }
+
+    /**
+     * This method performs the backtracking search for a position of every ship.
+     * It is implemented iteratively so its stack depth doesn't grow with the fleet.
+     *
+     * @param budget The number of positions to try before giving up on this search
+     * @param firstFit Pass true in order to take the first legal position of a ship
+     *        instead of a random one
+     * @return 1 if every ship got a position, -1 if there is none at all or 0 if the
+     *         budget was used up first
+     */
+    private int search(long budget, boolean firstFit) {
+        long attempts = 0;
+        int depth = 0;
+        this.triedCount[0] = 0;
+        while (depth >= 0 && depth < this.lengths.length) {
+            final int candidate = pickUntriedCandidate(depth, firstFit);
+            if (candidate < 0) {
+                // Dead end: drop the previous ship and try another position for it
+                depth--;
+                continue;
+            }
+            if (++attempts > budget) {
+                return 0;
+            }
+            markTried(depth, candidate);
+            this.chosen[depth] = candidate;
+            final int position = this.order[candidate];
+            final int cell = position >>> 1;
+            this.masks[depth + 1].copyFrom(this.masks[depth]);
+            this.masks[depth + 1].markShip(cell % this.width, cell / this.width, this.lengths[depth],
+                    (position & 1) == 1, this.socialDistance);
+            if (depth + 1 < this.lengths.length && !remainingLengthsFit(depth + 1)) {
+                // Some later ship has no position left, so try another one for this ship
+                continue;
+            }
+            depth++;
+            if (depth < this.lengths.length) {
+                this.triedCount[depth] = 0;
+            }
+        }
+        return depth == this.lengths.length ? 1 : -1;
+    }
+
+    /**
+     * This method picks a legal and not yet tried position for a ship uniformly at
+     * random. A ship of the same length as its predecessor only picks among the
+     * positions ranked after the predecessor's one.
+     *
+     * @param ship The index of the ship
+     * @param firstFit Pass true in order to pick the lowest ranked position instead
+     * @return The rank of the position or -1 if there is none left
+     */
+    private int pickUntriedCandidate(int ship, boolean firstFit) {
+        final int length = this.lengths[ship];
+        final int[] triedRanks = this.tried[ship];
+        final int count = this.triedCount[ship];
+        int found = 0;
+        for (int rank = firstRank(ship), t = 0; rank < this.order.length; rank++) {
+            while (t < count && triedRanks[t] < rank) {
+                t++;
+            }
+            if ((t < count && triedRanks[t] == rank) || !isLegal(ship, this.order[rank], length)) {
+                continue;
+            }
+            if (firstFit) {
+                return rank;
+            }
+            this.candidates[found++] = rank;
+        }
+        return found == 0 ? -1 : this.candidates[this.rnd.nextInt(found)];
+    }
+
+    /**
+     * This method checks whether every ship from the given one on still has a legal
+     * position given the ships placed before it.
+     *
+     * @param ship The index of the first ship that is not placed yet
+     * @return False if some ship can't be placed anymore
+     */
+    private boolean remainingLengthsFit(int ship) {
+        // Ships of the same length are adjacent, so only the first one of every length needs a look
+        for (int i = ship; i < this.lengths.length; i++) {
+            if (i > ship && this.lengths[i] == this.lengths[i - 1]) {
+                continue;
+            }
+            boolean fits = false;
+            for (int rank = firstRank(i); rank < this.order.length && !fits; rank++) {
+                fits = isLegal(ship, this.order[rank], this.lengths[i]);
+            }
+            if (!fits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method determines the lowest rank a ship may take. It is only above
+     * zero if the ship follows a placed ship of the same length.
+     *
+     * @param ship The index of the ship
+     * @return The lowest rank the ship may take
+     */
+    private int firstRank(int ship) {
+        if (ship > 0 && this.lengths[ship] == this.lengths[ship - 1]) {
+            return this.chosen[ship - 1] + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * This method remembers that a position of a ship was tried.
+     *
+     * @param ship The index of the ship
+     * @param rank The rank of the position
+     */
+    private void markTried(int ship, int rank) {
+        int[] triedRanks = this.tried[ship];
+        final int count = this.triedCount[ship];
+        if (triedRanks == null || triedRanks.length == count) {
+            triedRanks = triedRanks == null ? new int[4] : Arrays.copyOf(triedRanks, count * 2);
+            this.tried[ship] = triedRanks;
+        }
+        int i = count;
+        while (i > 0 && triedRanks[i - 1] > rank) {
+            triedRanks[i] = triedRanks[i - 1];
+            i--;
+        }
+        triedRanks[i] = rank;
+        this.triedCount[ship] = count + 1;
+    }
+
+    /**
+     * This method checks if a ship may be placed at a position given the ships placed
+     * before it.
+     *
+     * @param ship The index of the ship
+     * @param position The encoded position
+     * @param length The length of the ship
+     * @return True if the ship fits and doesn't touch any other ship
+     */
+    private boolean isLegal(int ship, int position, int length) {
+        final boolean up = (position & 1) == 1;
+        if (up && length == 1) {
+            // Single tile ships look the same in both orientations and are only counted once
+            return false;
+        }
+        final int cell = position >>> 1;
+        return this.masks[ship].canPlace(cell % this.width, cell / this.width, length, up);
+    }
+}
@@ -3,15 +3,19 @@ package de.uniluebeck.itm.schiffeversenken.game.ai;
 import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile;
 import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
 import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
-import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile.FieldTileState;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
 
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * This class represents a hard AIAgent that is at least a little better than
- * just hitting random tiles
- * 
+ * just hitting random tiles. It fires randomly until it hits a ship and then
+ * works through a queue of target tiles around its hits. Once two hits line
+ * up, the tiles extending that line are moved to the front of the queue.
+ *
  * @author Bendix Voss, Fabio Junghans
  */
 public class HardAIAgent extends AIAgent {
@@ -22,58 +26,27 @@ public class HardAIAgent extends AIAgent {
     private FieldTile lastTile;
 
     /**
-     * The right tracker tile
+     * The field the targets belong to
      */
-    private FieldTile anchorTileRight;
+    private GameField trackedField;
 
     /**
-     * The left tracker tile
+     * The cells (y * width + x) that should be bombarded next, most promising first
      */
-    private FieldTile anchorTileLeft;
+    private final ArrayDeque<Integer> targets = new ArrayDeque<>();
 
     /**
-     * The up tracker tile
+     * The cells containing hits on ships that are not sunken yet
      */
-    private FieldTile anchorTileUp;
-
-    /**
-     * The down tracker tile
-     */
-    private FieldTile anchorTileDown;
-
-    /**
-     * The ship tracking tile
-     */
-    private FieldTile mainShipTile;
-
-    /**
-     * the x coordinate of the tile to bombard or of the tile that has recently been bombarded
-     */
-    final AtomicInteger x = new AtomicInteger(0);
-
-    /**
-     * the y coordinate of the tile to bombard or of the tile that has recently been bombarded
-     */
-    final AtomicInteger y = new AtomicInteger(0);
-
-    /**
-     * the atomic variable for tracking cases in the ship destruction 
-     */
-    final AtomicInteger z = new AtomicInteger(0);
-
-    /**
-     * the variable to make sure the first move protocol only gets called once
-     */
-    int a = 0;
+    private final List<Integer> openHits = new ArrayList<>();
 
     /**
      * Constructor for new hard AIAgent
-     * 
+     *
      * @param hardness
      */
     public HardAIAgent(int hardness) {
         super(hardness);
-
     }
 
     @Override
@@ -83,224 +56,135 @@ public class HardAIAgent extends AIAgent {
 
     @Override
     public boolean performMove(GameField playersField) {
-
-        final Random rnd = new Random(System.currentTimeMillis());
-        final int fieldWidth = playersField.getSize().getX();
-        final int fieldHeight = playersField.getSize().getY();
-        FieldTile tile = playersField.getTileAt(0, 0);
-        FieldTile firstTile = playersField.getTileAt(1, 1);
-        // starts the very first turn
-        if (a == 0) {
-            //search for a random tile that is not occupied by a ship to set our "reset tile" to
-            do{
-            x.set(rnd.nextInt(fieldWidth));
-            y.set(rnd.nextInt(fieldHeight));
-            firstTile = playersField.getTileAt(x.get(), y.get());
-            } while(firstTile.getTilestate() == FieldTileState.STATE_SHIP);
-            //set the tracker tiles to the safe tile to avoid crashes
-            this.mainShipTile = firstTile;
-            this.anchorTileRight = firstTile;
-            this.anchorTileLeft = firstTile;
-            this.anchorTileUp = firstTile;
-            this.anchorTileDown = firstTile;
-            tile = firstTile;
-            //set a = 1 to ensure this first move protocol only gets called once
-            this.a = 1;
-            x.set(rnd.nextInt(fieldWidth));
-            y.set(rnd.nextInt(fieldHeight));
-            lastTile = playersField.getTileAt(x.get(), y.get());
-            return bombardIfFree(lastTile, playersField);
+        if (this.trackedField != playersField) {
+            this.trackedField = playersField;
+            this.targets.clear();
+            this.openHits.clear();
         }
-        // sets up the ship tracking if the last hit was on a ship
-        if (this.lastTile.getCorrespondingShip() != null) {
-            this.mainShipTile = this.lastTile;
-            // checks whether the last hit on a tile has sunken the ship
-            if (this.lastTile.getCorrespondingShip().isSunken()) {
-                //if true it sets all tracking tiles back to the safe tile
-                this.mainShipTile = firstTile;
-                this.anchorTileRight = firstTile;
-                this.anchorTileLeft = firstTile;
-                this.anchorTileUp = firstTile;
-                this.anchorTileDown = firstTile;
-                z.set(0);
+        final int width = playersField.getSize().getX();
+
+        // Drop targets that got bombarded in the meantime, every entry is looked at once at most
+        int cell = -1;
+        while (cell < 0 && !this.targets.isEmpty()) {
+            final int target = this.targets.pollFirst();
+            if (!playersField.wasAlreadyBombarded(target % width, target / width)) {
+                cell = target;
             }
         }
+        if (cell < 0) {
+            cell = playersField.pickUnbombardedCell(getRandom());
+            if (cell < 0) {
+                throw new RuntimeException("There is no tile left to bombard");
+            }
+        }
+
+        final int x = cell % width, y = cell / width;
+        this.lastTile = playersField.getTileAt(x, y);
+        final boolean hit = playersField.bombard(x, y);
+        if (hit) {
+            final Ship ship = playersField.getShipAt(x, y);
+            if (ship.isSunken()) {
+                shipSunk(playersField, ship);
+            } else {
+                this.openHits.add(cell);
+                addTargetsAround(playersField, cell);
+            }
+        }
+        return hit;
+    }
 
-        //when the AI hits a ship it goes into this case protocol and tracks its hits on that ship
-        //with those hits it deduces the location of the other ship parts after testing around the first hit
-        if (this.mainShipTile.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-            switch (z.get()) {
-                //it checks right, left, up, down in that order
-                case 0:
-                    //checks for out of bounds exceptions
-                    if (x.get() < fieldWidth - 1){
-                        tile = playersField.getTileAt(x.get() + 1, y.get());
-                        this.lastTile = tile;}else{this.lastTile = firstTile;}
-                    z.getAndAdd(1);
-                    return bombardIfFree(tile, playersField);
-                case 1:
-                    if (this.lastTile.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                        this.anchorTileRight = this.lastTile;
-                    }
-                    //checks for out of bounds exceptions
-                    if ( x.get() > 0 ){
-                        tile = playersField.getTileAt(x.get() - 1, y.get());
-                        this.lastTile = tile;}else{this.lastTile = firstTile;}
-                    z.getAndAdd(1);
-                    return bombardIfFree(tile, playersField);
-                case 2:
-                    if (this.lastTile.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                        this.anchorTileLeft = this.lastTile;
-                    }
-                    //checks for out of bounds exceptions
-                    if (y.get() > 0){
-                        tile = playersField.getTileAt(x.get(), y.get() - 1);
-                        this.lastTile = tile;}else{this.lastTile = firstTile;}
-                    z.getAndAdd(1);
-                    return bombardIfFree(tile, playersField);
-                case 3:
-                    if (this.lastTile.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                        this.anchorTileUp = this.lastTile;
-                    }
-                    //checks for out of bounds exceptions
-                    if (y.get() < fieldHeight - 1){
-                        tile = playersField.getTileAt(x.get(), y.get() + 1);
-                        this.lastTile = tile;}else{this.lastTile = firstTile;}
-                    z.getAndAdd(1);
-                    return bombardIfFree(tile, playersField);
-                //now that it has checked around the first hit it can deduce the location of the other parts with some certainty    
-                case 4:
-                    if (this.lastTile.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                        this.anchorTileDown = this.lastTile;
-                    }
-                    //here goes to destroy a horizontal ship
-                    if (!mainShipTile.getCorrespondingShip().isVertical()){
-                        if (anchorTileRight.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                            if (anchorTileLeft.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                                //checks for out of bounds exceptions
-                                if (x.get() < fieldWidth - 2 ){
-                                    tile = playersField.getTileAt(x.get() + 2, y.get());
-                                    this.lastTile = tile;}else{this.lastTile = firstTile;}
-                                z.getAndAdd(1);
-                                return bombardIfFree(tile, playersField);
-                            }
-                            //checks for out of bounds exceptions
-                            if (x.get() < fieldWidth - 2 ){
-                                tile = playersField.getTileAt(x.get() + 2, y.get());
-                                this.lastTile = tile;}else{this.lastTile = firstTile;}
-                            z.getAndAdd(2);
-                            return bombardIfFree(tile, playersField);
-                        }
-                        if (anchorTileLeft.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                            //checks for out of bounds exceptions
-                            if (x.get() > 1 ){
-                                tile = playersField.getTileAt(x.get() - 2, y.get());
-                                this.lastTile = tile;}else{this.lastTile = firstTile;}
-                            z.getAndAdd(3);
-                            return bombardIfFree(tile, playersField);
-                        }
-                    }    
-                    //here it goes to destroy a vertical ship
-                    if (mainShipTile.getCorrespondingShip().isVertical()){
-                        if (anchorTileUp.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                            if (anchorTileDown.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                                //checks for out of bounds exceptions
-                                if (y.get() > 1){
-                                    tile = playersField.getTileAt(x.get(), y.get() - 2);
-                                    this.lastTile = tile;}else{this.lastTile = firstTile;}
-                                z.getAndAdd(4);
-                                return bombardIfFree(tile, playersField);
-                            }
-                            //checks for out of bounds exceptions
-                            if (y.get() > 1){
-                                tile = playersField.getTileAt(x.get(), y.get() - 2);
-                                this.lastTile = tile;}else{this.lastTile = firstTile;}
-                            z.getAndAdd(5);
-                            return bombardIfFree(tile, playersField);
-                        }
-                        if (anchorTileDown.getTilestate() == FieldTileState.STATE_SHIP_HIT) {
-                            //checks for out of bounds exceptions
-                            if (y.get() < fieldHeight - 2){
-                                tile = playersField.getTileAt(x.get(), y.get() + 2);
-                                this.lastTile = tile;}else{this.lastTile = firstTile;}
-                            z.getAndAdd(6);
-                            return bombardIfFree(tile, playersField);
-                        }
-                    }
-                    //here it finds the last parts of any ship
-                case 5:
-                    tile = playersField.getTileAt(x.get() - 2, y.get());
-                    this.lastTile = tile;
-                    z.getAndAdd(6);
-                    return bombardIfFree(tile, playersField);
-                case 6:
-                    tile = playersField.getTileAt(x.get() + 3, y.get());
-                    this.lastTile = tile;
-                    z.getAndAdd(5);
-                    return bombardIfFree(tile, playersField);
-                case 7:
-                    tile = playersField.getTileAt(x.get() - 3, y.get());
-                    this.lastTile = tile;
-                    z.getAndAdd(4);
-                    return bombardIfFree(tile, playersField);
-                case 8:
-                    tile = playersField.getTileAt(x.get(), y.get() + 2);
-                    this.lastTile = tile;
-                    z.getAndAdd(3);
-                    return bombardIfFree(tile, playersField);
-                case 9:
-                    tile = playersField.getTileAt(x.get(), y.get() - 3);
-                    this.lastTile = tile;
-                    z.getAndAdd(2);
-                    return bombardIfFree(tile, playersField);
-                case 10:
-                    tile = playersField.getTileAt(x.get(), y.get() + 3);
-                    this.lastTile = tile;
-                    z.getAndAdd(1);
-                    return bombardIfFree(tile, playersField);
-                //this is the catcher for cases where its trying to bombard a already
-                //bombarded tile while locked in a specific case to avoid a stackoverflow  
-                case 11:
-                    do{
-                    x.set(rnd.nextInt(fieldWidth));
-                    y.set(rnd.nextInt(fieldHeight));  
-                    tile = playersField.getTileAt(x.get(), y.get());
-                    }while (tile.wasAlreadyBombarded());  
-                    this.lastTile = tile;
-                    this.mainShipTile = firstTile;
-                    return bombardIfFree(tile, playersField); 
+    /**
+     * This method forgets the hits on a sunken ship and rebuilds the targets of the
+     * remaining hits, as they may belong to ships touching the sunken one.
+     *
+     * @param field The tracked field
+     * @param ship The sunken ship
+     */
+    private void shipSunk(GameField field, Ship ship) {
+        final int width = field.getSize().getX();
+        for (Iterator<Integer> it = this.openHits.iterator(); it.hasNext();) {
+            final int hit = it.next();
+            if (field.getShipAt(hit % width, hit / width) == ship) {
+                it.remove();
             }
         }
+        this.targets.clear();
+        for (int hit : this.openHits) {
+            addTargetsAround(field, hit);
+        }
+    }
+
+    /**
+     * This method enqueues the tiles next to a hit. If a neighbour is a hit as well
+     * the ship most likely continues along that line, so the first free tiles
+     * on both ends of the line are queued in front of everything else.
+     *
+     * @param field The tracked field
+     * @param hit The cell of the hit
+     */
+    private void addTargetsAround(GameField field, int hit) {
+        final int width = field.getSize().getX(), height = field.getSize().getY();
+        final int x = hit % width, y = hit / width;
+        final boolean horizontalLine = (x > 0 && this.openHits.contains(hit - 1))
+                || (x < width - 1 && this.openHits.contains(hit + 1));
+        final boolean verticalLine = (y > 0 && this.openHits.contains(hit - width))
+                || (y < height - 1 && this.openHits.contains(hit + width));
+
+        if (horizontalLine) {
+            addLineEnd(field, x, y, -1, 0);
+            addLineEnd(field, x, y, 1, 0);
+        }
+        if (verticalLine) {
+            addLineEnd(field, x, y, 0, -1);
+            addLineEnd(field, x, y, 0, 1);
+        }
+        if (!horizontalLine && !verticalLine) {
+            addTarget(field, x + 1, y, false);
+            addTarget(field, x - 1, y, false);
+            addTarget(field, x, y - 1, false);
+            addTarget(field, x, y + 1, false);
+        }
+    }
 
-        // routine to get into when there is no ship to sink currently
-        if ((this.mainShipTile.getTilestate() == FieldTileState.STATE_WATER
-            || this.mainShipTile.getTilestate() == FieldTileState.STATE_MISSED)) {
-            //this is just the standard random tile bombardment
-            do {
-                x.set(rnd.nextInt(fieldWidth));
-                y.set(rnd.nextInt(fieldHeight));
-                tile = playersField.getTileAt(x.get(), y.get());
-            } while (tile.wasAlreadyBombarded());
-            this.lastTile = tile;
-            this.mainShipTile = tile;
-            return bombardIfFree(tile, playersField);
+    /**
+     * This method walks along a line of open hits and queues the first tile behind
+     * it in front of all other targets.
+     *
+     * @param field The tracked field
+     * @param x The x coordinate to start at
+     * @param y The y coordinate to start at
+     * @param dx The x direction of the walk
+     * @param dy The y direction of the walk
+     */
+    private void addLineEnd(GameField field, int x, int y, int dx, int dy) {
+        final int width = field.getSize().getX(), height = field.getSize().getY();
+        int currentX = x + dx, currentY = y + dy;
+        while (currentX >= 0 && currentY >= 0 && currentX < width && currentY < height
+                && this.openHits.contains(currentY * width + currentX)) {
+            currentX += dx;
+            currentY += dy;
         }
-        //if all else fails just return false
-        return false;
+        addTarget(field, currentX, currentY, true);
     }
+
     /**
-     * Use this method in order to only bombard tiles that have not yet been bombarded
-     * 
-     * @param tileToBombard
-     * @param field
-     * @return true when the AI hit a ship with the bombardment 
+     * This method queues a tile if it is located on the field and wasn't bombarded yet.
+     *
+     * @param field The tracked field
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @param urgent True if the tile should be bombarded before all other targets
      */
-    private boolean bombardIfFree(FieldTile tileToBombard, GameField field) {
-        //reruns the performMove method to find a different tile to bombard
-        if (tileToBombard.wasAlreadyBombarded()) {
-            return performMove(field);
+    private void addTarget(GameField field, int x, int y, boolean urgent) {
+        final int width = field.getSize().getX();
+        if (x < 0 || y < 0 || x >= width || y >= field.getSize().getY() || field.wasAlreadyBombarded(x, y)) {
+            return;
+        }
+        if (urgent) {
+            this.targets.addFirst(y * width + x);
+        } else {
+            this.targets.addLast(y * width + x);
         }
-        return tileToBombard.bombard();
     }
 
     @Override
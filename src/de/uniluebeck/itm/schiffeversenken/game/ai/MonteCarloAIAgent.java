@@ -0,0 +1,656 @@
+package de.uniluebeck.itm.schiffeversenken.game.ai;
+
+import de.uniluebeck.itm.schiffeversenken.engine.Application;
+import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class represents an AI agent that samples thousands of fleet layouts
+ * consistent with everything it has seen on the players field so far and fires
+ * at the cell that is covered by a ship most often. The sampling runs in
+ * parallel on a fork/join pool, stops when the time budget of a move is used up
+ * and can be cancelled at any time.
+ * <p>
+ * This is the "Very hard" agent. With the small fleets of the rule sets it plays
+ * about as well as the {@link DensityAIAgent}, which counts the possible ship
+ * positions directly within a fraction of the time and therefore is the expert.
+ */
+public class MonteCarloAIAgent extends AIAgent {
+
+    /**
+     * The number of layouts sampled per move if the time budget allows it
+     */
+    public static final int SAMPLES_PER_MOVE = 1000;
+
+    /**
+     * The time budget of a single move
+     */
+    public static final long TIME_BUDGET_MILLIS = 200;
+
+    /**
+     * The pool shared by all Monte Carlo agents
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Application.AVAIABLE_CPU_CORES);
+
+    /**
+     * The number of samples a single fork/join leaf produces. There are about four
+     * leaves per worker so idle workers can steal some.
+     */
+    private static final int SAMPLES_PER_LEAF = Math.max(1, SAMPLES_PER_MOVE / (POOL.getParallelism() * 4));
+
+    /**
+     * The cell was not bombarded yet
+     */
+    private static final byte UNKNOWN = 0;
+
+    /**
+     * The cell is known to contain water
+     */
+    private static final byte WATER = 1;
+
+    /**
+     * The cell contains a hit ship that is not sunken yet
+     */
+    private static final byte HIT = 2;
+
+    /**
+     * The cell contains a sunken ship
+     */
+    private static final byte SUNK = 3;
+
+    /**
+     * The rule set of the game
+     */
+    private Ruleset rules;
+
+    /**
+     * The field the knowledge belongs to
+     */
+    private GameField trackedField;
+
+    /**
+     * The width of the tracked field
+     */
+    private int width;
+
+    /**
+     * The height of the tracked field
+     */
+    private int height;
+
+    /**
+     * The known state of every cell of the tracked field
+     */
+    private byte[] cells;
+
+    /**
+     * The number of ships per length that are still afloat
+     */
+    private int[] remainingShips;
+
+    /**
+     * This variable is true once the game got left and no sampling should run anymore
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * The last field tile bombarded by the AI
+     */
+    private FieldTile lastTile;
+
+    /**
+     * The number of samples taken during the last move
+     */
+    private int lastSampleCount;
+
+    /**
+     * Construct a new Monte Carlo AI agent
+     *
+     * @param hardness The difficulty of the AI
+     */
+    public MonteCarloAIAgent(int hardness) {
+        super(hardness);
+    }
+
+    @Override
+    public void setup(Ruleset r, GameField agentsField) {
+        this.rules = r;
+        this.placeShipsAccordingToRules(r, agentsField);
+    }
+
+    @Override
+    public boolean performMove(GameField playersField) {
+        if (this.trackedField != playersField) {
+            initialize(playersField);
+        }
+        final int cell = pickCell();
+        final int x = cell % this.width, y = cell / this.width;
+        this.lastTile = playersField.getTileAt(x, y);
+        final boolean hit = playersField.bombard(x, y);
+        if (hit) {
+            this.cells[cell] = HIT;
+            final Ship ship = playersField.getShipAt(x, y);
+            if (ship.isSunken()) {
+                shipSunk(playersField, ship, x, y);
+            }
+        } else {
+            this.cells[cell] = WATER;
+        }
+        return hit;
+    }
+
+    /**
+     * Use this method in order to abort a running sampling. The current move will
+     * then use the samples taken so far and every later move doesn't sample at all.
+     */
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Use this method in order to get the number of layouts sampled for the last move.
+     *
+     * @return The number of consistent layouts
+     */
+    public int getLastSampleCount() {
+        return this.lastSampleCount;
+    }
+
+    /**
+     * This method reads the state of a new field.
+     *
+     * @param f The field to track
+     */
+    private void initialize(GameField f) {
+        this.trackedField = f;
+        this.width = f.getSize().getX();
+        this.height = f.getSize().getY();
+        this.cells = new byte[this.width * this.height];
+        this.remainingShips = new int[6];
+        if (this.rules != null) {
+            for (int length : FleetPlacer.fleetOf(this.rules)) {
+                this.remainingShips[length]++;
+            }
+        } else {
+            for (Ship s : f.getShips()) {
+                this.remainingShips[s.getLength()]++;
+            }
+        }
+        for (int y = 0; y < this.height; y++) {
+            for (int x = 0; x < this.width; x++) {
+                if (!f.wasAlreadyBombarded(x, y) || this.cells[y * this.width + x] != UNKNOWN) {
+                    continue;
+                }
+                final Ship s = f.getShipAt(x, y);
+                if (s == null) {
+                    this.cells[y * this.width + x] = WATER;
+                } else {
+                    this.cells[y * this.width + x] = HIT;
+                    if (s.isSunken()) {
+                        shipSunk(f, s, x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method updates the knowledge after a ship was sunk.
+     *
+     * @param f The tracked field
+     * @param ship The sunken ship
+     * @param x The x coordinate of the sinking hit
+     * @param y The y coordinate of the sinking hit
+     */
+    private void shipSunk(GameField f, Ship ship, int x, int y) {
+        final int dx = ship.isVertical() ? 0 : 1, dy = ship.isVertical() ? 1 : 0;
+        int startX = x, startY = y;
+        while (startX - dx >= 0 && startY - dy >= 0 && f.getShipAt(startX - dx, startY - dy) == ship) {
+            startX -= dx;
+            startY -= dy;
+        }
+        final int length = ship.getLength();
+        final boolean distancing = this.rules != null && this.rules.getSocialDistance();
+        for (int haloY = startY - 1; haloY <= startY + (length - 1) * dy + 1; haloY++) {
+            for (int haloX = startX - 1; haloX <= startX + (length - 1) * dx + 1; haloX++) {
+                if (haloX < 0 || haloY < 0 || haloX >= this.width || haloY >= this.height) {
+                    continue;
+                }
+                final int cell = haloY * this.width + haloX;
+                if (f.getShipAt(haloX, haloY) == ship) {
+                    this.cells[cell] = SUNK;
+                } else if (distancing && this.cells[cell] == UNKNOWN) {
+                    // No other ship may touch the sunken one so its surroundings are water
+                    this.cells[cell] = WATER;
+                }
+            }
+        }
+        if (length < this.remainingShips.length && this.remainingShips[length] > 0) {
+            this.remainingShips[length]--;
+        }
+    }
+
+    /**
+     * This method samples layouts in parallel and picks the unknown cell covered
+     * most often.
+     *
+     * @return The cell to bombard
+     */
+    private int pickCell() {
+        int hitCount = 0;
+        for (byte state : this.cells) {
+            if (state == HIT) {
+                hitCount++;
+            }
+        }
+        final int[] openHits = new int[hitCount];
+        for (int cell = 0, i = 0; cell < this.cells.length; cell++) {
+            if (this.cells[cell] == HIT) {
+                openHits[i++] = cell;
+            }
+        }
+
+        final Sampler sampler = new Sampler(this.width, this.height, this.cells.clone(), this.remainingShips.clone(),
+                openHits, this.rules != null && this.rules.getSocialDistance(),
+                System.nanoTime() + TIME_BUDGET_MILLIS * 1000000L);
+        final double[] counts = POOL.invoke(new SamplingTask(sampler, SAMPLES_PER_MOVE, getRandom().split()));
+        this.lastSampleCount = (int) counts[this.cells.length + 1];
+
+        double best = -1;
+        int bestCell = -1;
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            if (this.cells[cell] == UNKNOWN && counts[cell] > best) {
+                best = counts[cell];
+                bestCell = cell;
+            }
+        }
+        if (bestCell < 0) {
+            throw new RuntimeException("There is no tile left to bombard");
+        }
+        if (best == 0) {
+            // No consistent layout was found in time: fall back to a random unknown cell
+            int unknown = 0;
+            for (byte state : this.cells) {
+                if (state == UNKNOWN) {
+                    unknown++;
+                }
+            }
+            for (int cell = 0, skip = getRandom().nextInt(unknown); cell < this.cells.length; cell++) {
+                if (this.cells[cell] == UNKNOWN && skip-- == 0) {
+                    return cell;
+                }
+            }
+        }
+        return bestCell;
+    }
+
+    @Override
+    public FieldTile getLastAttackedTile() {
+        return this.lastTile;
+    }
+
+    /**
+     * This class contains the immutable input of a sampling run and produces
+     * single weighted layouts.
+     * <p>
+     * A layout is built ship by ship. Every ship picks uniformly among all positions
+     * that are still possible at that point, first the ships explaining the open hits
+     * and then the rest of the fleet, longest first. The layout is then weighted by
+     * the product of the number of choices it had, which cancels out the uneven
+     * chances of the single positions. The weighted counters therefore estimate the
+     * share of all consistent layouts covering a cell. A ship without any possible
+     * position yields the weight zero but still counts towards the drawn samples.
+     */
+    private final class Sampler {
+
+        /**
+         * The width of the field
+         */
+        private final int width;
+
+        /**
+         * The height of the field
+         */
+        private final int height;
+
+        /**
+         * The known state of every cell
+         */
+        private final byte[] cells;
+
+        /**
+         * The number of ships per length still afloat
+         */
+        private final int[] fleet;
+
+        /**
+         * The cells containing hits on ships that are not sunken yet
+         */
+        private final int[] openHits;
+
+        /**
+         * For every ship length the positions avoiding all known water, each encoded
+         * as the first cell times two plus one if the ship is vertical
+         */
+        private final int[][] positions;
+
+        /**
+         * Do ships need to social distance?
+         */
+        private final boolean distancing;
+
+        /**
+         * The System.nanoTime() value at which sampling has to stop
+         */
+        private final long deadline;
+
+        /**
+         * Construct a new sampler
+         *
+         * @param width The width of the field
+         * @param height The height of the field
+         * @param cells The known state of every cell
+         * @param fleet The number of ships per length still afloat
+         * @param openHits The cells containing hits on ships that are not sunken yet
+         * @param distancing Do ships need to social distance?
+         * @param deadline The System.nanoTime() value at which sampling has to stop
+         */
+        Sampler(int width, int height, byte[] cells, int[] fleet, int[] openHits, boolean distancing, long deadline) {
+            this.width = width;
+            this.height = height;
+            this.cells = cells;
+            this.fleet = fleet;
+            this.openHits = openHits;
+            this.distancing = distancing;
+            this.deadline = deadline;
+            this.positions = new int[fleet.length][];
+            final int[] found = new int[2 * width * height];
+            for (int length = 1; length < fleet.length; length++) {
+                if (fleet[length] == 0) {
+                    continue;
+                }
+                int count = 0;
+                // A ship of length one looks the same in both directions
+                for (int up = 0; up < (length == 1 ? 1 : 2); up++) {
+                    for (int y = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++) {
+                            if (isWaterFree(x, y, length, up == 1)) {
+                                found[count++] = (y * width + x) * 2 + up;
+                            }
+                        }
+                    }
+                }
+                this.positions[length] = Arrays.copyOf(found, count);
+            }
+        }
+
+        /**
+         * Use this method in order to check whether the sampling has to stop.
+         *
+         * @return True if the budget is used up or the agent got cancelled
+         */
+        boolean shouldStop() {
+            return cancelled || System.nanoTime() > this.deadline;
+        }
+
+        /**
+         * Use this method in order to sample layouts and add their weights to the
+         * counters of the cells they cover.
+         *
+         * @param samples The number of layouts to draw
+         * @param random The random number generator to use
+         * @return The weighted counters of every cell followed by the total weight and
+         * the number of layouts with a weight above zero
+         */
+        double[] sample(int samples, SplittableRandom random) {
+            final double[] counts = new double[this.cells.length + 2];
+            final int[] occupied = new int[this.cells.length];
+            final int[] halo = new int[this.cells.length];
+            final int[] remaining = new int[this.fleet.length];
+            final int[] placedCells = new int[this.cells.length];
+            final int[] choices = new int[2 * this.cells.length];
+            for (int s = 1; s <= samples && !shouldStop(); s++) {
+                if (sampleLayout(random, s, occupied, halo, remaining, placedCells, choices, counts)) {
+                    counts[this.cells.length + 1]++;
+                }
+            }
+            return counts;
+        }
+
+        /**
+         * This method builds one layout of the remaining fleet that covers all open
+         * hits and avoids all known water and adds its weight to the counters. The
+         * last ship isn't drawn at all: every position it could take gets counted,
+         * which removes most of the noise once only small ships are left.
+         *
+         * @param random The random number generator to use
+         * @param stamp The id of this sample. Cells marked with it are taken.
+         * @param occupied The stamps of occupied cells
+         * @param halo The stamps of cells next to a ship
+         * @param remaining The scratch array for the number of ships per length left to place
+         * @param placedCells The scratch array for the occupied cells
+         * @param choices The scratch array for the possible positions of a ship
+         * @param counts The weighted counters of every cell followed by the total weight
+         * @return False if the layout got stuck and has the weight zero
+         */
+        private boolean sampleLayout(SplittableRandom random, int stamp, int[] occupied, int[] halo, int[] remaining,
+                int[] placedCells, int[] choices, double[] counts) {
+            System.arraycopy(this.fleet, 0, remaining, 0, this.fleet.length);
+            int placed = 0;
+            double weight = 1;
+            // First of all every open hit needs to be explained by a ship
+            for (int hit : this.openHits) {
+                if (occupied[hit] == stamp) {
+                    continue;
+                }
+                // Every afloat ship is a choice of its own, so a position counts once per ship
+                int count = 0, options = 0;
+                for (int length = 1; length < remaining.length; length++) {
+                    if (remaining[length] == 0) {
+                        continue;
+                    }
+                    for (int up = 0; up < (length == 1 ? 1 : 2); up++) {
+                        for (int offset = 0; offset < length; offset++) {
+                            final int x = hit % this.width - (up == 1 ? 0 : offset);
+                            final int y = hit / this.width - (up == 1 ? offset : 0);
+                            if (fits(x, y, length, up == 1, stamp, occupied, halo)) {
+                                choices[count++] = ((y * this.width + x) * 2 + up) * remaining.length + length;
+                                options += remaining[length];
+                            }
+                        }
+                    }
+                }
+                if (options == 0) {
+                    return false;
+                }
+                int pick = random.nextInt(options), chosen = 0;
+                while (pick >= remaining[choices[chosen] % remaining.length]) {
+                    pick -= remaining[choices[chosen++] % remaining.length];
+                }
+                final int length = choices[chosen] % remaining.length, position = choices[chosen] / remaining.length;
+                placed = mark(position, length, stamp, occupied, halo, placedCells, placed);
+                remaining[length]--;
+                weight *= options;
+            }
+            int left = 0;
+            for (int n : remaining) {
+                left += n;
+            }
+            // Then the rest of the fleet goes anywhere it fits
+            for (int length = remaining.length - 1; length > 0; length--) {
+                for (; remaining[length] > 0; remaining[length]--, left--) {
+                    int count = 0;
+                    for (int position : this.positions[length]) {
+                        if (fits(position / 2 % this.width, position / 2 / this.width, length, position % 2 == 1,
+                                stamp, occupied, halo)) {
+                            choices[count++] = position;
+                        }
+                    }
+                    if (count == 0) {
+                        return false;
+                    }
+                    if (left > 1) {
+                        placed = mark(choices[random.nextInt(count)], length, stamp, occupied, halo, placedCells,
+                                placed);
+                        weight *= count;
+                        continue;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        final int step = choices[i] % 2 == 1 ? this.width : 1;
+                        for (int j = 0, c = choices[i] / 2; j < length; j++, c += step) {
+                            counts[c] += weight;
+                        }
+                    }
+                    weight *= count;
+                }
+            }
+            for (int i = 0; i < placed; i++) {
+                counts[placedCells[i]] += weight;
+            }
+            counts[this.cells.length] += weight;
+            return true;
+        }
+
+        /**
+         * This method checks whether a ship position lies within the field and avoids
+         * all known water.
+         *
+         * @param x The x coordinate of the first cell
+         * @param y The y coordinate of the first cell
+         * @param length The length of the ship
+         * @param up True if the ship is vertical
+         * @return True if the position is possible before any other ship got placed
+         */
+        private boolean isWaterFree(int x, int y, int length, boolean up) {
+            if (x < 0 || y < 0 || (up && (y + length > this.height || x >= this.width))
+                    || (!up && (x + length > this.width || y >= this.height))) {
+                return false;
+            }
+            final int step = up ? this.width : 1;
+            for (int i = 0, c = y * this.width + x; i < length; i++, c += step) {
+                if (this.cells[c] == WATER || this.cells[c] == SUNK) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * This method checks whether a ship fits at a position of the current sample.
+         *
+         * @param x The x coordinate of the first cell
+         * @param y The y coordinate of the first cell
+         * @param length The length of the ship
+         * @param up True if the ship is vertical
+         * @param stamp The id of the current sample
+         * @param occupied The stamps of occupied cells
+         * @param halo The stamps of cells next to a ship
+         * @return True if the ship may be placed
+         */
+        private boolean fits(int x, int y, int length, boolean up, int stamp, int[] occupied, int[] halo) {
+            if (!isWaterFree(x, y, length, up)) {
+                return false;
+            }
+            final int step = up ? this.width : 1;
+            for (int i = 0, c = y * this.width + x; i < length; i++, c += step) {
+                if (occupied[c] == stamp || (this.distancing && halo[c] == stamp)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * This method marks a ship within the current sample.
+         *
+         * @param position The encoded position of the ship
+         * @param length The length of the ship
+         * @param stamp The id of the current sample
+         * @param occupied The stamps of occupied cells
+         * @param halo The stamps of cells next to a ship
+         * @param placedCells The output array for the occupied cells
+         * @param placed The number of cells within placedCells
+         * @return The new number of cells within placedCells
+         */
+        private int mark(int position, int length, int stamp, int[] occupied, int[] halo, int[] placedCells,
+                int placed) {
+            final boolean up = position % 2 == 1;
+            final int x = position / 2 % this.width, y = position / 2 / this.width;
+            final int step = up ? this.width : 1;
+            for (int i = 0, c = y * this.width + x; i < length; i++, c += step) {
+                occupied[c] = stamp;
+                placedCells[placed++] = c;
+            }
+            if (this.distancing) {
+                final int toX = up ? x + 1 : x + length, toY = up ? y + length : y + 1;
+                for (int haloY = Math.max(0, y - 1); haloY <= Math.min(this.height - 1, toY); haloY++) {
+                    for (int haloX = Math.max(0, x - 1); haloX <= Math.min(this.width - 1, toX); haloX++) {
+                        halo[haloY * this.width + haloX] = stamp;
+                    }
+                }
+            }
+            return placed;
+        }
+    }
+
+    /**
+     * This task splits the requested number of samples until a leaf is small
+     * enough and sums up the counters of its children.
+     */
+    private static final class SamplingTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = -2918409133364781467L;
+
+        /**
+         * The sampler providing the layouts
+         */
+        private final Sampler sampler;
+
+        /**
+         * The number of samples this task is responsible for
+         */
+        private final int samples;
+
+        /**
+         * The random number generator of this task
+         */
+        private final SplittableRandom random;
+
+        /**
+         * Construct a new sampling task
+         *
+         * @param sampler The sampler providing the layouts
+         * @param samples The number of samples this task is responsible for
+         * @param random The random number generator of this task
+         */
+        SamplingTask(Sampler sampler, int samples, SplittableRandom random) {
+            this.sampler = sampler;
+            this.samples = samples;
+            this.random = random;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (this.samples <= SAMPLES_PER_LEAF || this.sampler.shouldStop()) {
+                return this.sampler.sample(this.samples, this.random);
+            }
+            final SamplingTask left = new SamplingTask(this.sampler, this.samples / 2, this.random.split());
+            final SamplingTask right = new SamplingTask(this.sampler, this.samples - this.samples / 2, this.random);
+            left.fork();
+            final double[] result = right.compute();
+            final double[] other = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+}
@@ -38,7 +38,7 @@ public class EndOfGameMenu {
                     public void performAction() {
                         Application.switchToScene(new ShipPlacementMenuScene(gameModel.getRules(),
                                 new String[]{gameModel.getPlayerName(), gameModel.getComputerName()},
-                                gameModel.getAgent().getHardness(), null));
+                                gameModel.getAgent().getHardness(), null, GameModel.chooseSeed()));
                     }
                 },
                 "button.toMainMenu", new Button("To the main menu", middleX + 50, 250, 200, 50) {
@@ -3,6 +3,8 @@ package de.uniluebeck.itm.schiffeversenken.game.menues;
 import java.util.*;
 
 import de.uniluebeck.itm.schiffeversenken.engine.*;
+import de.uniluebeck.itm.schiffeversenken.game.ai.FleetPlacer;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameModel;
 import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
 import de.uniluebeck.itm.schiffeversenken.engine.uicomponents.*;
 
@@ -41,6 +43,11 @@ public class GameSetupMenu {
 	 */
 	private final SimpleLabel loadingHintLabel;
 	
+	/**
+	 * The label announcing that the fleet of the selected rule set doesn't fit onto its field
+	 */
+	private final SimpleLabel fleetHintLabel;
+	
 	/**
 	 * The controller of the game setup menu
 	 */
@@ -65,16 +72,24 @@ public class GameSetupMenu {
 		this.ruleSelector = new DropdownSelector<Ruleset>(ruleMap, res.getX() / 2 - 100, 220, 200, 20,
 				selectedRuleset == null ? ruleMap.keySet().iterator().next() : selectedRuleset);
 
-		this.hardnessSelector = new DropdownSelector<Integer>(Map.of(0, "Easy", 1,  "Hard"),
+		final LinkedHashMap<Integer, String> hardnessMap = new LinkedHashMap<Integer, String>();
+		hardnessMap.put(0, "Easy");
+		hardnessMap.put(1, "Hard");
+		hardnessMap.put(2, "Very hard");
+		hardnessMap.put(3, "Expert");
+		this.hardnessSelector = new DropdownSelector<Integer>(hardnessMap,
 				res.getX() / 2 - 100, 250, 200, 20, 0);
 
 		this.loadingHintLabel = new SimpleLabel("Loading. Please wait...", res.getX() / 2 - 50, 250);
 		this.loadingHintLabel.setVisible(false);
+		this.fleetHintLabel = new SimpleLabel("Die Flotte passt nicht auf das Spielfeld!", res.getX() / 2 - 100, 335);
+		this.fleetHintLabel.setVisible(false);
 
 		ComponentModel m = new ComponentModel(Map.of("textbox.playername", this.playerNameTextBox,
 				"label.playernamelabel", new SimpleLabel("Spielername:", res.getX() / 2 - 100, 120),
 				"label.ruleselectorhint", new SimpleLabel("Bitte wähle deine Regeln:", res.getX() / 2 - 100, 190),
 				"label.loadinghint", this.loadingHintLabel,
+				"label.fleethint", this.fleetHintLabel,
 				"selector.rulesetselector", this.ruleSelector,
 				"selector.hardnessselector", this.hardnessSelector, "button.back",
 				new Button("Zurück", res.getX() / 2 - 100, 280, 95, 45) {
@@ -87,6 +102,12 @@ public class GameSetupMenu {
 
 					@Override
 					public void performAction() {
+						// Don't even start a game whose fleet can't be placed
+						if (!FleetPlacer.mightFit(ruleSelector.getCurrentSelectedItem())) {
+							fleetHintLabel.setVisible(true);
+							return;
+						}
+						fleetHintLabel.setVisible(false);
 						loadingHintLabel.setVisible(true);
 						controller.dispatchWork(new Runnable() {
 							@Override
@@ -94,17 +115,19 @@ public class GameSetupMenu {
 								// This is a bit heavier on the work load so we're putting it on a different thread.
 								Ruleset rules = ruleSelector.getCurrentSelectedItem();
 								String playerName = playerNameTextBox.getText();
-								String computerName = generateComputerName();
+								final long seed = GameModel.chooseSeed();
+								// The name and the agent use separate streams split off the seed
+								String computerName = generateComputerName(
+										GameModel.streamOf(seed, GameModel.STREAM_COMPUTER_NAME));
 								final int hardness = hardnessSelector.getCurrentSelectedItem();
 								final Scene s = new ShipPlacementMenuScene(rules,
 										new String[] {playerName, computerName},
-										hardness, scene);
+										hardness, scene, seed);
 								Application.switchToScene(s);
 								loadingHintLabel.setVisible(false);
 							}
 
-							private String generateComputerName() {
-								final Random rnd = new Random(System.currentTimeMillis());
+							private String generateComputerName(SplittableRandom rnd) {
 								switch (rnd.nextInt(3)) {
 									case 0:
 										return "[AI] Schnuckie the computer virus";
@@ -1,6 +1,12 @@
 package de.uniluebeck.itm.schiffeversenken.game.menues;
 
 import de.uniluebeck.itm.schiffeversenken.engine.*;
+import de.uniluebeck.itm.schiffeversenken.game.ShipTiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This scene displays a loading screen while doing shady loading business.
@@ -16,6 +22,16 @@ public class LoadingScene extends Scene {
 	 */
 	private final Controller<Object> c;
 
+	/**
+	 * The number of assets that are already registered. The worker threads of the controller increment it.
+	 */
+	private final AtomicInteger loadedAssets = new AtomicInteger();
+
+	/**
+	 * The number of assets to load
+	 */
+	private volatile int totalAssets = 0;
+
 	/**
 	 * Construct a new loading scene
 	 */
@@ -38,8 +54,14 @@ public class LoadingScene extends Scene {
 
 	@Override
 	public void draw(Canvas c, Vec2 mouseLocation) {
+		final int loaded = this.loadedAssets.get();
 		c.setColor(0.9, 0.9, 0.9);
-		c.drawString(15, 55, "Loading Data...");
+		c.drawString(15, 55, "Loading Data... (" + loaded + "/" + this.totalAssets + ")");
+		if (this.totalAssets > 0) {
+			final int barWidth = c.getResolutionWidth() - 30;
+			c.drawRect(15, 65, barWidth, 10);
+			c.fillRect(15, 65, barWidth * loaded / this.totalAssets, 10);
+		}
 	}
 
 	@Override
@@ -65,26 +87,24 @@ public class LoadingScene extends Scene {
 				{"right.ship.single", "assets/32x32/Tile_singleship_right_32x32_uint8_rgba.png"},
 				{"right.ship.single.hit", "assets/32x32/Tile_singleship_right_hit_32x32_uint8_rgba.png"},
 				{"arrow.down", "assets/32x32/Tile_arrow_down_32x32_uint8_rgba.png"}};
-	
-	//loads the right assets to the right tile
-	for (int y=0; y<tiles.length; y++){	
-		final int x=y;
-		this.c.dispatchWork(new Runnable() {
-			@Override
-			public void run() { 
-					AssetRegistry.registerTile(tiles[x][0], Application.loadTile(tiles[x][1]));	
-			}
-		 });}
-
-	//loads the seven segment assets
-	for (int x=0; x<10; x++){
-		String a = String.valueOf(x);
-		this.c.dispatchWork(new Runnable() {
-			@Override
-			public void run() {
-				AssetRegistry.registerTile("7seg." + a, Application.loadTile("assets/7seg/" + a + "_small.png"));
-			}
-		});}
+
+		//the seven segment assets
+		final List<String[]> assets = new ArrayList<String[]>(Arrays.asList(tiles));
+		for (int x = 0; x < 10; x++) {
+			assets.add(new String[]{"7seg." + x, "assets/7seg/" + x + "_small.png"});
+		}
+		this.totalAssets = assets.size();
+
+		//loads the right assets to the right tile
+		for (String[] asset : assets) {
+			this.c.dispatchWork(new Runnable() {
+				@Override
+				public void run() {
+					AssetRegistry.registerTile(asset[0], Application.loadTile(asset[1]));
+					loadedAssets.incrementAndGet();
+				}
+			});
+		}
 
 		this.c.startWorkStack();
 	}
@@ -92,6 +112,7 @@ public class LoadingScene extends Scene {
 	@Override
 	public void update(long milis) {
 		if (!this.c.hasWork()) {
+			ShipTiles.load();
 			MainMenu m = new MainMenu();
 			Application.switchToScene(m.getScene());
 		}
@@ -37,6 +37,11 @@ public class ShipPlacementMenuScene extends Scene {
 	 */
 	private final Scene backButtonScene;
 
+	/**
+	 * The seed all random decisions of the game are derived from
+	 */
+	private final long seed;
+
 	/**
 	 * the renderer of the game field
 	 */
@@ -79,8 +84,9 @@ public class ShipPlacementMenuScene extends Scene {
 	 * @param playerNames The names of both the human and the enemy AI player
 	 * @param aiHardness  The number determining the difficulty of the AI and which AIAgent is used
 	 * @param backButtonScene The scene switched to when the back button is pressed
+	 * @param seed The seed all random decisions of the game are derived from
 	 */
-	public ShipPlacementMenuScene(Ruleset r, String[] playerNames, int aiHardness, Scene backButtonScene) {
+	public ShipPlacementMenuScene(Ruleset r, String[] playerNames, int aiHardness, Scene backButtonScene, long seed) {
 		this.ruleset = r;
 		this.field = new GameField(r.getGameFieldSize());
 		this.playerNames = playerNames;
@@ -93,6 +99,7 @@ public class ShipPlacementMenuScene extends Scene {
 		this.drawnHeight = 0;
 		this.aiHardness = aiHardness;
 		this.backButtonScene = backButtonScene;
+		this.seed = seed;
 	}
 
 	@Override
@@ -108,20 +115,12 @@ public class ShipPlacementMenuScene extends Scene {
 
 		if (this.currentSelectedShipsLength > 0) {
 			// We're currently positioning a ship
-			final String shipPrefix = this.currentOrientationIsUp ? "up.ship." : "right.ship.";
 			for (int i = 0, x = mousePosition.getX(), y = mousePosition.getY(); i < this.currentSelectedShipsLength; i++) {
-				Tile selectedTile = null;
-				if (this.currentSelectedShipsLength == 1) {
-					selectedTile = AssetRegistry.getTile(shipPrefix + "single");
-				} else if((i == 0 && this.currentOrientationIsUp) ||
-						(i + 1 == this.currentSelectedShipsLength && !this.currentOrientationIsUp)) {
-					selectedTile = AssetRegistry.getTile(shipPrefix + "bug");
-				} else if((i + 1 == this.currentSelectedShipsLength && this.currentOrientationIsUp) ||
-						(i  == 0 && !this.currentOrientationIsUp)) {
-					selectedTile = AssetRegistry.getTile(shipPrefix + "aft");
-				} else {
-					selectedTile = AssetRegistry.getTile(shipPrefix + "middle");
-				}
+				// The front of a vertical ship is its first tile while the front of a horizontal one is its last
+				final boolean partBefore = i > 0, partAfter = i + 1 < this.currentSelectedShipsLength;
+				final Tile selectedTile = this.currentOrientationIsUp
+						? ShipTiles.get(true, ShipTiles.Segment.of(partBefore, partAfter), false)
+						: ShipTiles.get(false, ShipTiles.Segment.of(partAfter, partBefore), false);
 				selectedTile.renderAt(c,new Vec2(x, y));
 				if (this.currentOrientationIsUp) {
 					y += Constants.TILE_SIZE;
@@ -259,33 +258,13 @@ public class ShipPlacementMenuScene extends Scene {
 	 */
 	private void placeShipOnField(int x, int y) {
 
-		// After doing so we need to check that the ship would fit
-		if ((this.currentOrientationIsUp && y + this.currentSelectedShipsLength > this.ruleset.getGameFieldSize().getY())
-		|| (!this.currentOrientationIsUp && x + this.currentSelectedShipsLength > this.ruleset.getGameFieldSize().getX())) {
+		// After doing so we need to check that the ship would fit and obeys the social distancing rules
+		if (!this.field.canPlaceShip(x, y, this.currentSelectedShipsLength, this.currentOrientationIsUp,
+				this.ruleset.getSocialDistance())) {
 			// The ship won't fit. Simply do nothing.
 			return;
 		}
 
-		// Check if the tiles are occupied
-		for(int currentShipsX = x, currentShipsY = y, i = 0; i < this.currentSelectedShipsLength; i++) {
-			final FieldTile t = this.field.getTileAt(currentShipsX, currentShipsY);
-			if (t.getTilestate() != FieldTile.FieldTileState.STATE_WATER || t.getCorrespondingShip() != null) {
-				// place already occupied
-				return;
-			}
-			if (this.currentOrientationIsUp) {
-				currentShipsY++;
-			} else {
-				currentShipsX++;
-			}
-		} 
-
-		//checks for covid
-		if (ruleset.getSocialDistance()){
-			if (policeEnforcement(x, y)){
-				return;
-			}
-		}
 		// Then we need to create a ship and place it
 		final Ship shipToPlace = new Ship(this.currentSelectedShipsLength, this.currentOrientationIsUp);
 		this.field.placeShip(x, y, this.currentSelectedShipsLength, this.currentOrientationIsUp, shipToPlace);
@@ -293,57 +272,6 @@ public class ShipPlacementMenuScene extends Scene {
 		this.currentSelectedShipsLength = 0;
 	}
 
-	/**
-	 * Use this method to enforce social distancing laws
-	 * @return whether the police has to get involved and stop the placement
-	 */
-	private boolean policeEnforcement(int x, int y) {
-		//checks for orientation of the ship, goes into this path if the ship is vertical
-		if (this.currentOrientationIsUp) {
-			//nested for loop to parse over the 3xShipLength field from top left to bottom right
-			for (int j = -1; j < 2; j++){
-				for (int currentShipsX = x + j, currentShipsY = y - 1, i = 0; i < this.currentSelectedShipsLength + 2; i++){
-					//sanity check for out of bounds exceptions if the ship is placed close to the field borders
-					if (((currentShipsX < field.getSize().getX())&&(currentShipsX >= 0)) 
-					 && ((currentShipsY < field.getSize().getY())&&(currentShipsY >= 0))) {
-						//gets the tile at the current position and checks for other ships
-						final FieldTile t = this.field.getTileAt(currentShipsX, currentShipsY);
-						if (t.getCorrespondingShip() != null) {
-							return true;
-						}
-						currentShipsY++;
-					}
-					else {
-					currentShipsY++;
-					}	
-				}
-			}	
-		}
-		//goes into this path if the ship is horizontal
-		else {
-			//nested for loop to parse over the 3xShipLength field from top left to bottom right
-			for (int j = -1; j < 2; j++){
-				for (int currentShipsX = x - 1, currentShipsY = y + j, i = 0; i < this.currentSelectedShipsLength + 2; i++){
-					//sanity check for out of bounds exceptions if the ship is placed close to the field borders
-					if (((currentShipsX < field.getSize().getX())&&(currentShipsX >= 0)) 
-					 && ((currentShipsY < field.getSize().getY())&&(currentShipsY >= 0))) {
-						//gets the tile at the current position and checks for other ships
-						final FieldTile t = this.field.getTileAt(currentShipsX, currentShipsY);
-						if (t.getCorrespondingShip() != null) {
-							return true;
-						}
-						currentShipsX++;
-					}
-					else{
-					currentShipsX++;
-					}	
-				}
-			}	 
-		}
-		//if no ships were found in the surrounding area returns false and ends the method
-		return false;
-	}
-
 	/**
 	 * This method starts the game after the player has placed his ships and pressed "Continue"
 	 */
@@ -352,24 +280,21 @@ public class ShipPlacementMenuScene extends Scene {
 			return;
 		this.showGameStartingHint = true;
 		final long startTimer = System.currentTimeMillis();
-		Application.log("Starting game...");
+		Application.log("Starting game with seed " + this.seed + "...");
 		final Thread t = new Thread(new Runnable() {
 			@Override
 			public void run() {
-				final AIAgent ag;
-				switch (aiHardness) {
-					case 0:
-					default:
-						ag = new EasyAIAgent(0);
-						break;
-					case 1:
-					case 2:
-						ag = new HardAIAgent(0);
-						break;
-				}
+				final AIAgent ag = AIAgent.forHardness(aiHardness);
 				final GameField agentsField = new GameField(ruleset.getGameFieldSize());
-				ag.setup(ruleset, agentsField);
-				final GameModel m = new GameModel(field, agentsField, ruleset, ag, playerNames[0], playerNames[1]);
+				ag.setSeed(GameModel.streamOf(seed, GameModel.STREAM_AGENT).nextLong());
+				try {
+					ag.setup(ruleset, agentsField);
+				} catch (RuntimeException e) {
+					// The fleet placement only fails if the rule set can't be satisfied at all
+					Application.crash(e);
+					return;
+				}
+				final GameModel m = new GameModel(field, agentsField, ruleset, ag, playerNames[0], playerNames[1], seed);
 				final GameScene s = new GameScene(m);
 				Application.switchToScene(s);
 				Application.log("Game setup occurred within " + (System.currentTimeMillis() - startTimer) + "ms.");
@@ -0,0 +1,214 @@
+package de.uniluebeck.itm.schiffeversenken.game.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile.FieldTileState;
+
+/**
+ * This class stores the tiles of a game field in packed bit planes instead of
+ * one FieldTile object per cell. Cells are addressed row by row using the index
+ * y * width + x, so horizontally neighboring cells share a long word.
+ */
+final class BitboardFieldStorage {
+
+	/**
+	 * The number of columns
+	 */
+	private final int width;
+
+	/**
+	 * The number of rows
+	 */
+	private final int height;
+
+	/**
+	 * One bit per cell that is occupied by a ship
+	 */
+	private final long[] shipPlane;
+
+	/**
+	 * One bit per ship cell that has been bombarded
+	 */
+	private final long[] hitPlane;
+
+	/**
+	 * One bit per water cell that has been bombarded
+	 */
+	private final long[] missPlane;
+
+	/**
+	 * The id of the ship occupying a cell. 0 means no ship, every other value is
+	 * the index within the ship registry plus one.
+	 */
+	private final int[] shipIds;
+
+	/**
+	 * The registry resolving ship ids to their ship instances
+	 */
+	private final List<Ship> shipRegistry;
+
+	/**
+	 * Construct a new empty storage containing only water.
+	 *
+	 * @param width  The number of columns
+	 * @param height The number of rows
+	 */
+	BitboardFieldStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		final int words = (width * height + 63) >>> 6;
+		this.shipPlane = new long[words];
+		this.hitPlane = new long[words];
+		this.missPlane = new long[words];
+		this.shipIds = new int[width * height];
+		this.shipRegistry = new ArrayList<>();
+	}
+
+	/**
+	 * Use this method in order to compute the cell index of a coordinate.
+	 *
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The index of the cell
+	 */
+	int indexOf(int x, int y) {
+		return y * this.width + x;
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Use this method in order to check a single bit of a plane.
+	 *
+	 * @param plane The plane to check
+	 * @param index The cell index
+	 * @return True if the bit is set
+	 */
+	private static boolean isSet(long[] plane, int index) {
+		return (plane[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Use this method in order to set or clear a single bit of a plane.
+	 *
+	 * @param plane The plane to modify
+	 * @param index The cell index
+	 * @param value The new value of the bit
+	 */
+	private static void set(long[] plane, int index, boolean value) {
+		if (value) {
+			plane[index >>> 6] |= 1L << index;
+		} else {
+			plane[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	/**
+	 * Use this method in order to decode the state of a cell.
+	 *
+	 * @param index The cell index
+	 * @return The state of the cell
+	 */
+	FieldTileState getState(int index) {
+		if (isSet(this.shipPlane, index)) {
+			return isSet(this.hitPlane, index) ? FieldTileState.STATE_SHIP_HIT : FieldTileState.STATE_SHIP;
+		}
+		return isSet(this.missPlane, index) ? FieldTileState.STATE_MISSED : FieldTileState.STATE_WATER;
+	}
+
+	/**
+	 * Use this method in order to overwrite the state of a cell.
+	 *
+	 * @param index The cell index
+	 * @param state The new state
+	 */
+	void setState(int index, FieldTileState state) {
+		final boolean ship = state == FieldTileState.STATE_SHIP || state == FieldTileState.STATE_SHIP_HIT;
+		set(this.shipPlane, index, ship);
+		set(this.hitPlane, index, state == FieldTileState.STATE_SHIP_HIT);
+		set(this.missPlane, index, state == FieldTileState.STATE_MISSED);
+	}
+
+	/**
+	 * Use this method in order to look up the ship occupying a cell.
+	 *
+	 * @param index The cell index
+	 * @return The ship or null if there is none
+	 */
+	Ship getShip(int index) {
+		final int id = this.shipIds[index];
+		return id == 0 ? null : this.shipRegistry.get(id - 1);
+	}
+
+	/**
+	 * Use this method in order to link a ship to a cell.
+	 *
+	 * @param index The cell index
+	 * @param ship  The ship to link or null in order to remove the link
+	 */
+	void setShip(int index, Ship ship) {
+		this.shipIds[index] = ship == null ? 0 : idOf(ship);
+	}
+
+	/**
+	 * Use this method in order to retrieve the id of a ship. Unknown ships get
+	 * registered.
+	 *
+	 * @param ship The ship to look up
+	 * @return The id of the ship
+	 */
+	private int idOf(Ship ship) {
+		// Ships are usually placed one after another so the last one is the best guess
+		for (int i = this.shipRegistry.size() - 1; i >= 0; i--) {
+			if (this.shipRegistry.get(i) == ship) {
+				return i + 1;
+			}
+		}
+		this.shipRegistry.add(ship);
+		return this.shipRegistry.size();
+	}
+
+	/**
+	 * Use this method in order to bombard a cell.
+	 *
+	 * @param index The cell index
+	 * @return True if it was a hit.
+	 */
+	boolean bombard(int index) {
+		final int word = index >>> 6;
+		final long mask = 1L << index;
+		if ((this.shipPlane[word] & mask) != 0) {
+			if ((this.hitPlane[word] & mask) != 0) {
+				return false;
+			}
+			this.hitPlane[word] |= mask;
+			getShip(index).hit();
+			return true;
+		}
+		this.missPlane[word] |= mask;
+		return false;
+	}
+
+	/**
+	 * Use this method in order to check if a cell was already bombarded.
+	 *
+	 * @param index The cell index
+	 * @return True if the cell was hit or missed.
+	 */
+	boolean wasAlreadyBombarded(int index) {
+		return ((this.hitPlane[index >>> 6] | this.missPlane[index >>> 6]) & (1L << index)) != 0;
+	}
+}
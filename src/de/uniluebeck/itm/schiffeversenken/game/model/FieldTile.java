@@ -1,7 +1,8 @@
 package de.uniluebeck.itm.schiffeversenken.game.model;
 
 /**
- * This class represents a tile on a players field.
+ * This class represents a tile on a players field. A tile either holds its own
+ * state or acts as a view onto a cell of a packed game field.
  * @author leondietrich
  *
  */
@@ -17,7 +18,33 @@ public final class FieldTile {
 	 */
 	private FieldTileState tilestate = FieldTileState.STATE_WATER;
 
+	/**
+	 * The packed storage backing this tile or null if the tile holds its own state
+	 */
+	private final BitboardFieldStorage storage;
+
+	/**
+	 * The index of the backed cell within the packed storage
+	 */
+	private final int index;
+
+	/**
+	 * Construct a new tile holding its own state. It starts as water.
+	 */
+	public FieldTile() {
+		this.storage = null;
+		this.index = -1;
+	}
 
+	/**
+	 * Construct a new tile that reads and writes the state of a packed cell.
+	 * @param storage The storage containing the cell
+	 * @param index The index of the cell
+	 */
+	FieldTile(BitboardFieldStorage storage, int index) {
+		this.storage = storage;
+		this.index = index;
+	}
 
 	/**
      * The possible states of a field tile
@@ -49,6 +76,9 @@ public final class FieldTile {
 	 * @return the correspondingShip
 	 */
 	public final Ship getCorrespondingShip() {
+		if (this.storage != null) {
+			return this.storage.getShip(this.index);
+		}
 		return correspondingShip;
 	}
 
@@ -56,6 +86,10 @@ public final class FieldTile {
 	 * @param correspondingShip the correspondingShip to set
 	 */
 	public final void setCorrespondingShip(Ship correspondingShip) {
+		if (this.storage != null) {
+			this.storage.setShip(this.index, correspondingShip);
+			return;
+		}
 		this.correspondingShip = correspondingShip;
 	}
 
@@ -63,6 +97,9 @@ public final class FieldTile {
 	 * @return the tilestate
 	 */
 	public final FieldTileState getTilestate() {
+		if (this.storage != null) {
+			return this.storage.getState(this.index);
+		}
 		return tilestate;
 	}
 
@@ -70,6 +107,10 @@ public final class FieldTile {
 	 * @param tilestate the tilestate to set
 	 */
 	public final void setTilestate(FieldTileState tilestate) {
+		if (this.storage != null) {
+			this.storage.setState(this.index, tilestate);
+			return;
+		}
 		this.tilestate = tilestate;
 	}
 
@@ -79,6 +120,9 @@ public final class FieldTile {
 	 * @return True if it was a hit.
 	 */
 	public boolean bombard() {
+		if (this.storage != null) {
+			return this.storage.bombard(this.index);
+		}
 		switch (this.tilestate) {
 		case STATE_MISSED:
 			return false;
@@ -100,6 +144,9 @@ public final class FieldTile {
 	 * @return True if the tile state is STATE_SHIP_HIT or STATE_MISSED.
 	 */
 	public boolean wasAlreadyBombarded() {
+		if (this.storage != null) {
+			return this.storage.wasAlreadyBombarded(this.index);
+		}
 		return this.tilestate == FieldTileState.STATE_SHIP_HIT || this.tilestate == FieldTileState.STATE_MISSED;
 	}
 }
@@ -2,6 +2,7 @@ package de.uniluebeck.itm.schiffeversenken.game.model;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
 import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile.FieldTileState;
@@ -21,30 +22,93 @@ public final class GameField {
 	private final Vec2 size;
 	
 	/**
-	 * The 2D Matrix containing all FieldTiles
+	 * The 2D Matrix containing all FieldTiles or null if the field uses packed storage
 	 */
 	private final FieldTile[][] field;
+
+	/**
+	 * The packed storage containing all tile states or null if the field uses FieldTile objects
+	 */
+	private final BitboardFieldStorage bitboard;
 	
 	/**
 	 * The list of all ships
 	 */
 	private List<Ship> ships;
 
+	/**
+	 * The mask of all tiles occupied by a ship
+	 */
+	private final PlacementMask occupiedMask;
+
+	/**
+	 * The mask of all tiles occupied by a ship or directly adjacent to one
+	 */
+	private final PlacementMask haloMask;
+
+	/**
+	 * The number of ships on this field that are not sunken yet
+	 */
+	private int remainingShips;
+
+	/**
+	 * The number of ship tiles on this field that were not hit yet
+	 */
+	private int remainingShipCells;
+
+	/**
+	 * The pool of all tiles that were not bombarded yet
+	 */
+	private final UnbombardedCellPool unbombardedCells;
+
+	/**
+	 * The number of tile changes made so far
+	 */
+	private long modificationCount;
+
+	/**
+	 * For every column the value of modificationCount after its last change
+	 */
+	private final long[] columnModifications;
+
 	/**
 	 * Construct a new game field.
 	 * 
 	 * @param size The size of the new game field to use.
 	 */
 	public GameField(Vec2 size) {
+		this(size, false);
+	}
+
+	/**
+	 * Construct a new game field using the desired storage mode. Packed storage
+	 * keeps the tile states within bit planes instead of one object per tile which
+	 * pays off on large fields and when simulating many games.
+	 * 
+	 * @param size The size of the new game field to use.
+	 * @param packed True if the tiles should be stored in packed bit planes.
+	 */
+	public GameField(Vec2 size, boolean packed) {
 		this.size = size;
-		this.field = new FieldTile[size.getX()][size.getY()];
-		
-		for (int x=0; x<size.getX(); x++) {
-			for (int y=0; y<size.getY(); y++) {
-				field[x][y] = new FieldTile();
+		if (packed) {
+			this.field = null;
+			this.bitboard = new BitboardFieldStorage(size.getX(), size.getY());
+		} else {
+			this.field = new FieldTile[size.getX()][size.getY()];
+			this.bitboard = null;
+
+			for (int x=0; x<size.getX(); x++) {
+				for (int y=0; y<size.getY(); y++) {
+					field[x][y] = new FieldTile();
+				}
 			}
 		}
 		this.ships = new LinkedList<>();
+		this.occupiedMask = new PlacementMask(size.getX(), size.getY());
+		this.haloMask = new PlacementMask(size.getX(), size.getY());
+		this.unbombardedCells = new UnbombardedCellPool(size.getX() * size.getY());
+		this.modificationCount = 0;
+		this.columnModifications = new long[size.getX()];
 	}
 	/**
 	 * Use this method in order to get the fields size.
@@ -56,17 +120,122 @@ public final class GameField {
 	}
 
 	/**
-	 * Use this method in order to get the tile at the desired location.
+	 * Use this method in order to check whether the field uses packed storage.
+	 * 
+	 * @return True if the tiles are stored in bit planes.
+	 */
+	public boolean isPacked() {
+		return this.bitboard != null;
+	}
+
+	/**
+	 * Use this method in order to get the tile at the desired location. On a packed
+	 * field the returned tile is a lightweight view onto the cell.
 	 * @param x The x coordinate
 	 * @param y The y coordinate
 	 * @return The located tile
 	 */
 	public FieldTile getTileAt(int x, int y) {
-		if(this.size.getX() < x || this.size.getY() < y)
-			throw new RuntimeException("Field tile out of bounds");
+		checkBounds(x, y);
+		if (this.bitboard != null) {
+			return new FieldTile(this.bitboard, this.bitboard.indexOf(x, y));
+		}
 		return this.field[x][y];
 	}
 
+	/**
+	 * Use this method in order to get the state of the tile at the desired location
+	 * without looking up the tile itself.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The state of the located tile
+	 */
+	public FieldTileState getTileStateAt(int x, int y) {
+		checkBounds(x, y);
+		if (this.bitboard != null) {
+			return this.bitboard.getState(this.bitboard.indexOf(x, y));
+		}
+		return this.field[x][y].getTilestate();
+	}
+
+	/**
+	 * Use this method in order to get the ship at the desired location without
+	 * looking up the tile itself.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The ship on the located tile or null if there is none
+	 */
+	public Ship getShipAt(int x, int y) {
+		checkBounds(x, y);
+		if (this.bitboard != null) {
+			return this.bitboard.getShip(this.bitboard.indexOf(x, y));
+		}
+		return this.field[x][y].getCorrespondingShip();
+	}
+
+	/**
+	 * Use this method in order to bombard the tile at the desired location.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return True if it was a hit.
+	 */
+	public boolean bombard(int x, int y) {
+		checkBounds(x, y);
+		this.unbombardedCells.remove(y * this.size.getX() + x);
+		columnModified(x);
+		if (this.bitboard != null) {
+			return this.bitboard.bombard(this.bitboard.indexOf(x, y));
+		}
+		return this.field[x][y].bombard();
+	}
+
+	/**
+	 * Use this method in order to check if the tile at the desired location was already hit.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return True if the tile was hit or missed.
+	 */
+	public boolean wasAlreadyBombarded(int x, int y) {
+		checkBounds(x, y);
+		if (this.bitboard != null) {
+			return this.bitboard.wasAlreadyBombarded(this.bitboard.indexOf(x, y));
+		}
+		return this.field[x][y].wasAlreadyBombarded();
+	}
+
+	/**
+	 * Use this method in order to pick a uniformly distributed tile that was not
+	 * bombarded yet. The cell index is y * width + x so picking a tile doesn't
+	 * allocate anything.
+	 * @param rnd The random number generator to use
+	 * @return The cell index of the tile or -1 if every tile was bombarded
+	 */
+	public int pickUnbombardedCell(RandomGenerator rnd) {
+		final int width = this.size.getX();
+		while (true) {
+			final int position = this.unbombardedCells.samplePosition(rnd);
+			if (position < 0) {
+				return -1;
+			}
+			final int cell = this.unbombardedCells.get(position);
+			if (!wasAlreadyBombarded(cell % width, cell / width)) {
+				return cell;
+			}
+			// The tile was bombarded directly and not through this field, so drop it now
+			this.unbombardedCells.remove(cell);
+		}
+	}
+
+	/**
+	 * This method makes sure that the given coordinates are located on the field.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || y < 0 || x >= this.size.getX() || y >= this.size.getY())
+			throw new RuntimeException("Field tile out of bounds");
+	}
+
 	/**
 	 * Use this method in order to place ships on the game field.
 	 * @param posX The x coordinate where the ship should begin
@@ -79,19 +248,126 @@ public final class GameField {
 		//places the ship if its vertical
 		if (up){
 			for (int x=0; x<length; x++){
-				getTileAt(posX, posY + x).setTilestate(FieldTileState.STATE_SHIP);
-				getTileAt(posX, posY + x).setCorrespondingShip(shipToPlace);
+				setShipTile(posX, posY + x, shipToPlace);
 			}
 		}
 		//places the ship if its horizontal
 		else {
 			for (int y=0; y<length; y++){
-				getTileAt(posX + y, posY).setTilestate(FieldTileState.STATE_SHIP);
-				getTileAt(posX + y, posY).setCorrespondingShip(shipToPlace);
+				setShipTile(posX + y, posY, shipToPlace);
 			}
 		}
+		//updates the placement masks
+		this.occupiedMask.markShip(posX, posY, length, up, false);
+		this.haloMask.markShip(posX, posY, length, up, true);
 		//adds the ship to the shiplist
 		ships.add(shipToPlace);
+		shipToPlace.setOwner(this);
+		this.remainingShips++;
+		this.remainingShipCells += length;
+	}
+
+	/**
+	 * This method gets called by a ship on this field every time it takes a hit.
+	 * @param ship The ship that was hit
+	 */
+	void shipWasHit(Ship ship) {
+		this.remainingShipCells--;
+		if (ship.isSunken()) {
+			this.remainingShips--;
+		}
+	}
+
+	/**
+	 * Use this method in order to check if all ships on this field are sunken.
+	 * @return True if there is no ship left afloat.
+	 */
+	public boolean isFleetDestroyed() {
+		return this.remainingShips == 0;
+	}
+
+	/**
+	 * Use this method in order to get the number of ships that are not sunken yet.
+	 * @return The number of remaining ships.
+	 */
+	public int remainingShips() {
+		return this.remainingShips;
+	}
+
+	/**
+	 * Use this method in order to get the number of ship tiles that were not hit yet.
+	 * @return The number of remaining ship tiles.
+	 */
+	public int remainingShipCells() {
+		return this.remainingShipCells;
+	}
+
+	/**
+	 * Use this method in order to check if a ship may be placed at the given position.
+	 * @param posX The x coordinate where the ship should begin
+	 * @param posY The y coordinate where the ship should begin
+	 * @param length The length of the ship to place.
+	 * @param up True if the ship should be placed vertically; false otherwise
+	 * @param socialDistance True if ships must not touch each other, not even diagonally
+	 * @return True if the ship fits on the field and doesn't collide with other ships
+	 */
+	public boolean canPlaceShip(int posX, int posY, int length, boolean up, boolean socialDistance) {
+		return (socialDistance ? this.haloMask : this.occupiedMask).canPlace(posX, posY, length, up);
+	}
+
+	/**
+	 * Use this method in order to get a copy of the mask {@link #canPlaceShip} tests
+	 * against. Marking ships on the copy doesn't change the field.
+	 * @param socialDistance True if ships must not touch each other, not even diagonally
+	 * @return The copy of the mask
+	 */
+	public PlacementMask copyPlacementMask(boolean socialDistance) {
+		return (socialDistance ? this.haloMask : this.occupiedMask).copy();
+	}
+
+	/**
+	 * Use this method in order to get the number of tile changes made so far.
+	 * @return The modification count
+	 */
+	long getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Use this method in order to find out when a column changed the last time.
+	 * @param x The x coordinate of the column
+	 * @return The modification count right after the last change of the column
+	 */
+	long getColumnModification(int x) {
+		return this.columnModifications[x];
+	}
+
+	/**
+	 * This method records a change of a tile within a column.
+	 * @param x The x coordinate of the column
+	 */
+	private void columnModified(int x) {
+		this.modificationCount++;
+		this.columnModifications[x] = this.modificationCount;
+	}
+
+	/**
+	 * This method marks a single tile as part of a ship.
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @param ship The ship occupying the tile
+	 */
+	private void setShipTile(int x, int y, Ship ship) {
+		checkBounds(x, y);
+		columnModified(x);
+		if (this.bitboard != null) {
+			final int index = this.bitboard.indexOf(x, y);
+			this.bitboard.setState(index, FieldTileState.STATE_SHIP);
+			this.bitboard.setShip(index, ship);
+		} else {
+			this.field[x][y].setTilestate(FieldTileState.STATE_SHIP);
+			this.field[x][y].setCorrespondingShip(ship);
+		}
 	}
 
 	/**
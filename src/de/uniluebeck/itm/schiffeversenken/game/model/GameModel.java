@@ -3,6 +3,8 @@ package de.uniluebeck.itm.schiffeversenken.game.model;
 import de.uniluebeck.itm.schiffeversenken.engine.Vec2;
 import de.uniluebeck.itm.schiffeversenken.game.ai.AIAgent;
 
+import java.util.SplittableRandom;
+
 /**
  * This class represents the game's model
  * 
@@ -10,6 +12,21 @@ import de.uniluebeck.itm.schiffeversenken.game.ai.AIAgent;
  * 
  */
 public class GameModel{
+
+	/**
+	 * The system property that can be set in order to replay a game using a known seed
+	 */
+	public static final String SEED_PROPERTY = "schiffeversenken.seed";
+
+	/**
+	 * The random number stream of the AI agent
+	 */
+	public static final int STREAM_AGENT = 0;
+
+	/**
+	 * The random number stream choosing the name of the computer player
+	 */
+	public static final int STREAM_COMPUTER_NAME = 1;
     
 	/**
 	 * The game field of the human player
@@ -42,14 +59,14 @@ public class GameModel{
 	private final String computerName;
 
 	/**
-     * The vector containing the coordinates of the opponent's game field
+     * The vector containing the coordinates of the opponent's game field. It's written by the render thread.
      */
-	private Vec2 opponentsFieldPosition;
+	private volatile Vec2 opponentsFieldPosition;
 	
 	/**
-	 * The vector containing the height and width of the opponent's game field
+	 * The vector containing the height and width of the opponent's game field. It's written by the render thread.
 	 */
-	private Vec2 opponentsFieldDimensions;
+	private volatile Vec2 opponentsFieldDimensions;
     
 	/**
 	 * The number of rounds
@@ -71,6 +88,16 @@ public class GameModel{
      */
 	private int aiPoints;
 
+	/**
+	 * The seed all random decisions of this game are derived from
+	 */
+	private final long seed;
+
+	/**
+	 * The last published state of the game
+	 */
+	private volatile GameSnapshot snapshot;
+
 	/**
      * Construct a new game model
      * @param humanPlayerField The game field of the human player
@@ -79,8 +106,9 @@ public class GameModel{
      * @param agent The AIAgent determining the difficulty of the enemy player
      * @param playerName The name of the human player
      * @param computerName The name of the enemy AI player
+     * @param seed The seed all random decisions of this game are derived from
      */
-	public GameModel(GameField humanPlayerField, GameField computerPlayerField, Ruleset rules, AIAgent agent, String playerName, String computerName) {
+	public GameModel(GameField humanPlayerField, GameField computerPlayerField, Ruleset rules, AIAgent agent, String playerName, String computerName, long seed) {
         this.humanPlayerField = humanPlayerField;
         this.computerPlayerField = computerPlayerField;
         this.rules = rules;
@@ -93,6 +121,50 @@ public class GameModel{
         this.opponentsFieldDimensions = new Vec2(-1, -1);
         this.playerPoints = 0;
         this.aiPoints = 0;
+        this.seed = seed;
+        this.snapshot = new GameSnapshot(0, this, null);
+    }
+
+	/**
+     * Use this method in order to choose the seed of a new game. If the system property
+     * {@link #SEED_PROPERTY} contains a number it is used in order to replay that game.
+     * @return The seed to use
+     */
+	public static long chooseSeed() {
+        final String fixedSeed = System.getProperty(SEED_PROPERTY);
+        if (fixedSeed != null) {
+            try {
+                return Long.parseLong(fixedSeed.trim());
+            } catch (NumberFormatException e) {
+                // Fall through and use a fresh seed instead
+            }
+        }
+        return new SplittableRandom().nextLong();
+    }
+
+	/**
+     * Use this method in order to get one of the independent random number streams of a
+     * game. Every stream is split off the same root generator, so no stream is derived
+     * from another one.
+     * @param seed The seed of the game
+     * @param stream The stream, for example {@link #STREAM_AGENT}
+     * @return A new generator producing the stream
+     */
+	public static SplittableRandom streamOf(long seed, int stream) {
+        final SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom s = root.split();
+        for (int i = 0; i < stream; i++) {
+            s = root.split();
+        }
+        return s;
+    }
+
+	/**
+     * Use this method in order to retrieve the seed of the game
+     * @return seed
+     */
+	public long getSeed() {
+        return seed;
     }
 
 	/**
@@ -143,6 +215,27 @@ public class GameModel{
         return computerName;
     }
 
+    /**
+     * Use this method in order to get the last published state of the game. It can be
+     * read from any thread.
+     * @return The snapshot
+     */
+    public GameSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Use this method in order to publish the current state of the game. The rounds, the
+     * points and the fields must only be changed by the thread owning the game, which
+     * publishes a new snapshot after every change.
+     * @return The new snapshot
+     */
+    public GameSnapshot publishSnapshot() {
+        final GameSnapshot s = new GameSnapshot(this.snapshot.getVersion() + 1, this, this.snapshot);
+        this.snapshot = s;
+        return s;
+    }
+
     /**
      * This method increases the round counter by 1.
      */
@@ -0,0 +1,205 @@
+package de.uniluebeck.itm.schiffeversenken.game.model;
+
+import de.uniluebeck.itm.schiffeversenken.game.model.FieldTile.FieldTileState;
+
+/**
+ * This class represents the state of a game at one point in time. It never
+ * changes, so the render thread can read it while the game goes on. Every
+ * published snapshot has a higher version than the one before. A snapshot only
+ * copies the columns of a field that changed since the previous one and shares
+ * all others with it.
+ */
+public final class GameSnapshot {
+
+	/**
+	 * The version of the snapshot
+	 */
+	private final long version;
+
+	/**
+	 * The number of rounds
+	 */
+	private final int roundCounter;
+
+	/**
+	 * True if the AI is doing its turn
+	 */
+	private final boolean roundChanging;
+
+	/**
+	 * The points of the human player
+	 */
+	private final int playerPoints;
+
+	/**
+	 * The points of the AI
+	 */
+	private final int aiPoints;
+
+	/**
+	 * The tiles of the human player's field
+	 */
+	private final Field humanPlayerField;
+
+	/**
+	 * The tiles of the AI player's field
+	 */
+	private final Field computerPlayerField;
+
+	/**
+	 * Construct a new snapshot of a game
+	 * @param version The version of the snapshot
+	 * @param model The game to copy
+	 * @param previous The snapshot published before or null if this is the first one
+	 */
+	GameSnapshot(long version, GameModel model, GameSnapshot previous) {
+		this.version = version;
+		this.roundCounter = model.getRoundCounter();
+		this.roundChanging = model.isRoundChanging();
+		this.playerPoints = model.getPlayerPoints();
+		this.aiPoints = model.getAiPoints();
+		this.humanPlayerField = Field.of(model.getHumanPlayerField(),
+				previous == null ? null : previous.humanPlayerField);
+		this.computerPlayerField = Field.of(model.getComputerPlayerField(),
+				previous == null ? null : previous.computerPlayerField);
+	}
+
+	/**
+	 * Use this method in order to get the version of the snapshot.
+	 * @return The version
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Use this method in order to get the round counter.
+	 * @return The current round number.
+	 */
+	public int getRoundCounter() {
+		return this.roundCounter;
+	}
+
+	/**
+	 * Use this method in order to check if the round is changing.
+	 * @return True if the AI is doing its turn.
+	 */
+	public boolean isRoundChanging() {
+		return this.roundChanging;
+	}
+
+	/**
+	 * Use this method in order to get the points of the human player.
+	 * @return The amount of points the player has.
+	 */
+	public int getPlayerPoints() {
+		return this.playerPoints;
+	}
+
+	/**
+	 * Use this method in order to get the points of the AI.
+	 * @return The amount of points the AI has.
+	 */
+	public int getAiPoints() {
+		return this.aiPoints;
+	}
+
+	/**
+	 * Use this method in order to get the tiles of the human player's field.
+	 * @return The tiles
+	 */
+	public Field getHumanPlayerField() {
+		return this.humanPlayerField;
+	}
+
+	/**
+	 * Use this method in order to get the tiles of the AI player's field.
+	 * @return The tiles
+	 */
+	public Field getComputerPlayerField() {
+		return this.computerPlayerField;
+	}
+
+	/**
+	 * This class holds the tile states of a game field. The columns are never
+	 * changed once created, so later snapshots may share them.
+	 */
+	public static final class Field {
+
+		/**
+		 * The field the states were copied from
+		 */
+		private final GameField source;
+
+		/**
+		 * The modification count of the source at the time of copying
+		 */
+		private final long modificationCount;
+
+		/**
+		 * The state of every tile, column by column
+		 */
+		private final FieldTileState[][] columns;
+
+		/**
+		 * Copy the tile states of a game field
+		 * @param field The field to copy
+		 * @param previous A copy of the same field to take the unchanged columns from or null
+		 */
+		private Field(GameField field, Field previous) {
+			final int width = field.getSize().getX(), height = field.getSize().getY();
+			this.source = field;
+			this.modificationCount = field.getModificationCount();
+			this.columns = new FieldTileState[width][];
+			for (int x = 0; x < width; x++) {
+				if (previous != null && field.getColumnModification(x) <= previous.modificationCount) {
+					this.columns[x] = previous.columns[x];
+					continue;
+				}
+				final FieldTileState[] column = new FieldTileState[height];
+				for (int y = 0; y < height; y++) {
+					column[y] = field.getTileStateAt(x, y);
+				}
+				this.columns[x] = column;
+			}
+		}
+
+		/**
+		 * This method copies the tile states of a game field, reusing everything that
+		 * didn't change since the previous copy.
+		 * @param field The field to copy
+		 * @param previous The previous copy of the field or null
+		 * @return The copy
+		 */
+		private static Field of(GameField field, Field previous) {
+			if (previous == null || previous.source != field) {
+				return new Field(field, null);
+			}
+			if (previous.modificationCount == field.getModificationCount()) {
+				return previous;
+			}
+			return new Field(field, previous);
+		}
+
+		/**
+		 * Use this method in order to get the state of a tile.
+		 * @param x The x coordinate
+		 * @param y The y coordinate
+		 * @return The state of the tile
+		 */
+		public FieldTileState getTileStateAt(int x, int y) {
+			return this.columns[x][y];
+		}
+
+		/**
+		 * Use this method in order to check if the tile was already hit.
+		 * @param x The x coordinate
+		 * @param y The y coordinate
+		 * @return True if the tile was hit or missed.
+		 */
+		public boolean wasAlreadyBombarded(int x, int y) {
+			final FieldTileState state = getTileStateAt(x, y);
+			return state == FieldTileState.STATE_SHIP_HIT || state == FieldTileState.STATE_MISSED;
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package de.uniluebeck.itm.schiffeversenken.game.model;
+
+/**
+ * This class is a bit mask over the cells of a game field. It is stored twice,
+ * once row by row and once column by column, so a horizontal as well as a
+ * vertical ship can be tested against it using one or two word wide AND
+ * operations. Every legality check of a ship position is done against such a
+ * mask, the ones of a game field as well as the copies a placement search
+ * backtracks with.
+ */
+public final class PlacementMask {
+
+	/**
+	 * The number of columns
+	 */
+	private final int width;
+
+	/**
+	 * The number of rows
+	 */
+	private final int height;
+
+	/**
+	 * The number of long words per row
+	 */
+	private final int rowWords;
+
+	/**
+	 * The number of long words per column
+	 */
+	private final int columnWords;
+
+	/**
+	 * The mask stored row by row
+	 */
+	private final long[] rows;
+
+	/**
+	 * The mask stored column by column
+	 */
+	private final long[] columns;
+
+	/**
+	 * Construct a new empty mask.
+	 *
+	 * @param width  The number of columns
+	 * @param height The number of rows
+	 */
+	PlacementMask(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.rowWords = (width + 63) >>> 6;
+		this.columnWords = (height + 63) >>> 6;
+		this.rows = new long[height * this.rowWords];
+		this.columns = new long[width * this.columnWords];
+	}
+
+	/**
+	 * Use this method in order to create an independent copy of this mask.
+	 *
+	 * @return The copy
+	 */
+	public PlacementMask copy() {
+		final PlacementMask m = new PlacementMask(this.width, this.height);
+		m.copyFrom(this);
+		return m;
+	}
+
+	/**
+	 * Use this method in order to overwrite this mask with the bits of another
+	 * mask of the same size.
+	 *
+	 * @param other The mask to copy
+	 */
+	public void copyFrom(PlacementMask other) {
+		if (other.width != this.width || other.height != this.height) {
+			throw new RuntimeException("The masks differ in size");
+		}
+		System.arraycopy(other.rows, 0, this.rows, 0, this.rows.length);
+		System.arraycopy(other.columns, 0, this.columns, 0, this.columns.length);
+	}
+
+	/**
+	 * Use this method in order to set the bit of a single cell. Coordinates
+	 * outside of the field are ignored.
+	 *
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 */
+	void mark(int x, int y) {
+		if (x < 0 || y < 0 || x >= this.width || y >= this.height) {
+			return;
+		}
+		this.rows[y * this.rowWords + (x >>> 6)] |= 1L << x;
+		this.columns[x * this.columnWords + (y >>> 6)] |= 1L << y;
+	}
+
+	/**
+	 * Use this method in order to set the bits of a rectangle. The rectangle gets
+	 * clipped to the field.
+	 *
+	 * @param x      The x coordinate of the upper left corner
+	 * @param y      The y coordinate of the upper left corner
+	 * @param width  The width of the rectangle
+	 * @param height The height of the rectangle
+	 */
+	void markRectangle(int x, int y, int width, int height) {
+		for (int currentY = y; currentY < y + height; currentY++) {
+			for (int currentX = x; currentX < x + width; currentX++) {
+				mark(currentX, currentY);
+			}
+		}
+	}
+
+	/**
+	 * Use this method in order to mark the cells of a ship. With a halo the
+	 * surrounding cells get marked as well.
+	 *
+	 * @param x      The x coordinate where the ship begins
+	 * @param y      The y coordinate where the ship begins
+	 * @param length The length of the ship
+	 * @param up     True if the ship is vertical
+	 * @param halo   True if the surrounding cells should be marked too
+	 */
+	public void markShip(int x, int y, int length, boolean up, boolean halo) {
+		final int border = halo ? 1 : 0;
+		final int shipWidth = up ? 1 : length, shipHeight = up ? length : 1;
+		markRectangle(x - border, y - border, shipWidth + 2 * border, shipHeight + 2 * border);
+	}
+
+	/**
+	 * Use this method in order to check if a ship lies within the field and doesn't
+	 * cover any marked cell.
+	 *
+	 * @param x      The x coordinate where the ship begins
+	 * @param y      The y coordinate where the ship begins
+	 * @param length The length of the ship
+	 * @param up     True if the ship is vertical
+	 * @return True if the ship may be placed
+	 */
+	public boolean canPlace(int x, int y, int length, boolean up) {
+		if (x < 0 || y < 0 || length < 1
+				|| (up && y + length > this.height) || (!up && x + length > this.width)
+				|| (up && x >= this.width) || (!up && y >= this.height)) {
+			return false;
+		}
+		return !intersects(x, y, length, up);
+	}
+
+	/**
+	 * Use this method in order to check if a ship would cover any marked cell. The
+	 * ship needs to be located on the field.
+	 *
+	 * @param x      The x coordinate where the ship begins
+	 * @param y      The y coordinate where the ship begins
+	 * @param length The length of the ship
+	 * @param up     True if the ship is vertical
+	 * @return True if at least one covered cell is marked
+	 */
+	boolean intersects(int x, int y, int length, boolean up) {
+		if (up) {
+			return intersectsRange(this.columns, x * this.columnWords, y, length);
+		}
+		return intersectsRange(this.rows, y * this.rowWords, x, length);
+	}
+
+	/**
+	 * This method tests a consecutive range of bits within a single row or column.
+	 *
+	 * @param line   The array containing the row or column
+	 * @param offset The index of the first word of the row or column
+	 * @param from   The first bit to test
+	 * @param length The number of bits to test
+	 * @return True if at least one bit is set
+	 */
+	private static boolean intersectsRange(long[] line, int offset, int from, int length) {
+		final int to = from + length - 1;
+		final int firstWord = from >>> 6, lastWord = to >>> 6;
+		final long firstMask = -1L << from;
+		final long lastMask = -1L >>> (63 - (to & 63));
+		if (firstWord == lastWord) {
+			return (line[offset + firstWord] & firstMask & lastMask) != 0;
+		}
+		if ((line[offset + firstWord] & firstMask) != 0 || (line[offset + lastWord] & lastMask) != 0) {
+			return true;
+		}
+		for (int word = firstWord + 1; word < lastWord; word++) {
+			if (line[offset + word] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
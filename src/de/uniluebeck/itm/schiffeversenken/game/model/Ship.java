@@ -23,6 +23,11 @@ public class Ship {
 	 */
 	private int hits = 0;
 
+	/**
+	 * owner The game field the ship was placed on or null if it wasn't placed yet
+	 */
+	private GameField owner = null;
+
 	/**
 	 * This constructor constructs a new ship.
 	 * @param length The length of the ship to create.
@@ -42,6 +47,9 @@ public class Ship {
 		
 		if (isSunken() == false ) {
 			hits++;
+			if (owner != null) {
+				owner.shipWasHit(this);
+			}
 		}
 	}
 
@@ -59,6 +67,22 @@ public class Ship {
 		}
 	}
 	
+	/**
+	 * Use this method as a getter for the length
+	 * @return length of the ship
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Use this method in order to tell the ship on which field it got placed.
+	 * @param owner The game field containing the ship
+	 */
+	void setOwner(GameField owner) {
+		this.owner = owner;
+	}
+
 	/**
 	 * Use this method as a getter for the orientation 
 	 * @return orientation of the ship
@@ -0,0 +1,87 @@
+package de.uniluebeck.itm.schiffeversenken.game.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This class keeps the indices of all cells of a game field that were not
+ * bombarded yet. The cells are stored densely within an array together with
+ * the position of every cell inside of it, so sampling a uniform random cell
+ * and removing a cell both take constant time.
+ */
+final class UnbombardedCellPool {
+
+	/**
+	 * The not yet bombarded cells. Only the first size entries are valid.
+	 */
+	private final int[] cells;
+
+	/**
+	 * The position of every cell within the cells array or -1 if it was removed
+	 */
+	private final int[] positions;
+
+	/**
+	 * The number of cells within the pool
+	 */
+	private int size;
+
+	/**
+	 * Construct a new pool containing every cell.
+	 *
+	 * @param cellCount The number of cells of the field
+	 */
+	UnbombardedCellPool(int cellCount) {
+		this.cells = new int[cellCount];
+		this.positions = new int[cellCount];
+		for (int i = 0; i < cellCount; i++) {
+			this.cells[i] = i;
+			this.positions[i] = i;
+		}
+		this.size = cellCount;
+	}
+
+	/**
+	 * @return the number of cells within the pool
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Use this method in order to get the cell at a position of the pool.
+	 *
+	 * @param position The position within the pool
+	 * @return The cell index
+	 */
+	int get(int position) {
+		return this.cells[position];
+	}
+
+	/**
+	 * Use this method in order to pick a uniformly distributed position of the pool.
+	 *
+	 * @param rnd The random number generator to use
+	 * @return The position or -1 if the pool is empty
+	 */
+	int samplePosition(RandomGenerator rnd) {
+		return this.size == 0 ? -1 : rnd.nextInt(this.size);
+	}
+
+	/**
+	 * Use this method in order to remove a cell from the pool. Removing a cell twice
+	 * does nothing.
+	 *
+	 * @param cell The cell index
+	 */
+	void remove(int cell) {
+		final int position = this.positions[cell];
+		if (position < 0) {
+			return;
+		}
+		// Fill the gap with the last cell so the pool stays dense
+		final int last = this.cells[--this.size];
+		this.cells[position] = last;
+		this.positions[last] = position;
+		this.positions[cell] = -1;
+	}
+}
@@ -18,8 +18,10 @@ public class Main {
      * @param args The command line arguments passed to the application
      */
     public static void main(String[] args) {
-        Application.setup(new AWTGUIContext("Schiffeversenken", Constants.SCREEN_WIDTH,
-        		Constants.SCREEN_HEIGHT));
+        final AWTGUIContext context = new AWTGUIContext("Schiffeversenken", Constants.SCREEN_WIDTH,
+        		Constants.SCREEN_HEIGHT, true);
+        context.setTileAtlasEnabled(true);
+        Application.setup(context);
 
         Application.switchToScene(new LoadingScene());
 
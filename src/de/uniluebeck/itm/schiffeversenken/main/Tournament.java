@@ -0,0 +1,306 @@
+package de.uniluebeck.itm.schiffeversenken.main;
+
+import de.uniluebeck.itm.schiffeversenken.engine.Application;
+import de.uniluebeck.itm.schiffeversenken.game.ai.AIAgent;
+import de.uniluebeck.itm.schiffeversenken.game.model.GameField;
+import de.uniluebeck.itm.schiffeversenken.game.model.Ruleset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * This class lets two AI agents play against each other without any user
+ * interface. The games are spread across all cores and the runner reports
+ * the win rates, the distribution of shots needed to win and the per move
+ * latency of both agents. The agents are created by factories, so any agent
+ * can take part, while the command line picks them by difficulty.
+ *
+ * Usage: Tournament &lt;hardness A&gt; &lt;hardness B&gt; [games] [rule set 1|2] [seed]
+ * with the hardness 0 = easy, 1 = hard, 2 = very hard (Monte Carlo), 3 = expert (density)
+ */
+public final class Tournament {
+
+    /**
+     * The width of a bucket of the shots to win histogram
+     */
+    private static final int HISTOGRAM_BUCKET = 10;
+
+    /**
+     * The factory creating the first agent of every game
+     */
+    private final Supplier<AIAgent> agentA;
+
+    /**
+     * The factory creating the second agent of every game
+     */
+    private final Supplier<AIAgent> agentB;
+
+    /**
+     * The rule set all games are played with
+     */
+    private final Ruleset rules;
+
+    /**
+     * The seed all games are derived from
+     */
+    private final long seed;
+
+    /**
+     * Construct a new tournament
+     *
+     * @param agentA The factory creating a new first agent for every game
+     * @param agentB The factory creating a new second agent for every game
+     * @param rules The rule set all games are played with
+     * @param seed The seed all games are derived from
+     */
+    Tournament(Supplier<AIAgent> agentA, Supplier<AIAgent> agentB, Ruleset rules, long seed) {
+        this.agentA = agentA;
+        this.agentB = agentB;
+        this.rules = rules;
+        this.seed = seed;
+    }
+
+    /**
+     * The entry point of the headless tournament.
+     *
+     * @param args The command line arguments passed to the application
+     * @throws InterruptedException if the tournament got interrupted
+     * @throws ExecutionException if a game crashed
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < 2) {
+            System.out.println("Usage: Tournament <hardness A> <hardness B> [games] [rule set 1|2] [seed]");
+            System.out.println("Hardness: 0 = easy, 1 = hard, 2 = very hard (Monte Carlo), 3 = expert (density)");
+            return;
+        }
+        final int hardnessA = Integer.parseInt(args[0]);
+        final int hardnessB = Integer.parseInt(args[1]);
+        final int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        final Ruleset rules = args.length > 3 && args[3].equals("2") ? Ruleset.OFFICIAL_SECOND_VERSION_RULESET
+                : Ruleset.OFFICIAL_FIRST_VERSION_RULESET;
+        final long seed = args.length > 4 ? Long.parseLong(args[4]) : new SplittableRandom().nextLong();
+
+        Application.log("Playing " + games + " games of " + rules.getRulesetName() + " with seed " + seed + " on "
+                + Application.AVAIABLE_CPU_CORES + " cores");
+        final long start = System.currentTimeMillis();
+        final Tournament t = new Tournament(() -> AIAgent.forHardness(hardnessA),
+                () -> AIAgent.forHardness(hardnessB), rules, seed);
+        final List<GameResult> results = t.play(games);
+        Application.log("The tournament took " + (System.currentTimeMillis() - start) + "ms");
+        t.report(results);
+    }
+
+    /**
+     * Use this method in order to play a number of games in parallel. The agents take
+     * turns in beginning a game.
+     *
+     * @param games The number of games to play
+     * @return The results of all games in order
+     * @throws InterruptedException if the tournament got interrupted
+     * @throws ExecutionException if a game crashed
+     */
+    public List<GameResult> play(int games) throws InterruptedException, ExecutionException {
+        final SplittableRandom seeds = new SplittableRandom(this.seed);
+        final ExecutorService pool = Executors.newFixedThreadPool(Application.AVAIABLE_CPU_CORES);
+        try {
+            final List<Future<GameResult>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                final long gameSeed = seeds.nextLong();
+                final boolean aBegins = i % 2 == 0;
+                futures.add(pool.submit(() -> playGame(gameSeed, aBegins)));
+            }
+            final List<GameResult> results = new ArrayList<>(games);
+            for (Future<GameResult> f : futures) {
+                results.add(f.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * This method plays a single game.
+     *
+     * @param gameSeed The seed of the game
+     * @param aBegins True if the first agent fires first
+     * @return The result of the game
+     */
+    private GameResult playGame(long gameSeed, boolean aBegins) {
+        final SplittableRandom streams = new SplittableRandom(gameSeed);
+        final AIAgent a = this.agentA.get();
+        final AIAgent b = this.agentB.get();
+        a.setSeed(streams.nextLong());
+        b.setSeed(streams.nextLong());
+        final GameField fieldA = new GameField(this.rules.getGameFieldSize(), true);
+        final GameField fieldB = new GameField(this.rules.getGameFieldSize(), true);
+        a.setup(this.rules, fieldA);
+        b.setup(this.rules, fieldB);
+
+        final int cells = fieldA.getSize().getX() * fieldA.getSize().getY();
+        final long[] latenciesA = new long[cells], latenciesB = new long[cells];
+        int shotsA = 0, shotsB = 0;
+        boolean aTurn = aBegins;
+        while (!fieldA.isFleetDestroyed() && !fieldB.isFleetDestroyed()) {
+            // Just like in the real game a hit grants another shot
+            final long moveStart = System.nanoTime();
+            final boolean hit = aTurn ? a.performMove(fieldB) : b.performMove(fieldA);
+            final long latency = System.nanoTime() - moveStart;
+            if (aTurn) {
+                latenciesA[shotsA++] = latency;
+            } else {
+                latenciesB[shotsB++] = latency;
+            }
+            if (!hit) {
+                aTurn = !aTurn;
+            }
+        }
+        return new GameResult(fieldB.isFleetDestroyed(), shotsA, shotsB, Arrays.copyOf(latenciesA, shotsA),
+                Arrays.copyOf(latenciesB, shotsB));
+    }
+
+    /**
+     * This method prints the statistics of a tournament.
+     *
+     * @param results The results of all games played by this tournament
+     */
+    private void report(List<GameResult> results) {
+        int winsA = 0;
+        int latencyCountA = 0, latencyCountB = 0;
+        for (GameResult r : results) {
+            winsA += r.aWon ? 1 : 0;
+            latencyCountA += r.latenciesA.length;
+            latencyCountB += r.latenciesB.length;
+        }
+        final long[] latenciesA = new long[latencyCountA], latenciesB = new long[latencyCountB];
+        final List<Integer> winningShotsA = new ArrayList<>(), winningShotsB = new ArrayList<>();
+        int offsetA = 0, offsetB = 0;
+        for (GameResult r : results) {
+            System.arraycopy(r.latenciesA, 0, latenciesA, offsetA, r.latenciesA.length);
+            System.arraycopy(r.latenciesB, 0, latenciesB, offsetB, r.latenciesB.length);
+            offsetA += r.latenciesA.length;
+            offsetB += r.latenciesB.length;
+            if (r.aWon) {
+                winningShotsA.add(r.shotsA);
+            } else {
+                winningShotsB.add(r.shotsB);
+            }
+        }
+
+        final String nameA = "A (" + this.agentA.get().getClass().getSimpleName() + ")";
+        final String nameB = "B (" + this.agentB.get().getClass().getSimpleName() + ")";
+        System.out.printf("%-22s wins %5.1f%%   move latency p50 %8.1fus   p99 %8.1fus%n", nameA,
+                100.0 * winsA / results.size(), percentile(latenciesA, 50) / 1000.0,
+                percentile(latenciesA, 99) / 1000.0);
+        System.out.printf("%-22s wins %5.1f%%   move latency p50 %8.1fus   p99 %8.1fus%n", nameB,
+                100.0 * (results.size() - winsA) / results.size(), percentile(latenciesB, 50) / 1000.0,
+                percentile(latenciesB, 99) / 1000.0);
+        printHistogram(nameA, winningShotsA);
+        printHistogram(nameB, winningShotsB);
+    }
+
+    /**
+     * This method prints the distribution of the shots an agent needed for its wins.
+     *
+     * @param name The name of the agent
+     * @param shots The number of shots of every won game
+     */
+    private static void printHistogram(String name, List<Integer> shots) {
+        System.out.println("Shots to win of " + name + ":");
+        if (shots.isEmpty()) {
+            System.out.println("  no wins");
+            return;
+        }
+        int max = 0;
+        for (int s : shots) {
+            max = Math.max(max, s);
+        }
+        final int[] buckets = new int[max / HISTOGRAM_BUCKET + 1];
+        for (int s : shots) {
+            buckets[s / HISTOGRAM_BUCKET]++;
+        }
+        int highest = 0;
+        for (int b : buckets) {
+            highest = Math.max(highest, b);
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            final int bar = Math.max(1, buckets[i] * 50 / highest);
+            System.out.printf("  %3d-%3d %6d %s%n", i * HISTOGRAM_BUCKET, (i + 1) * HISTOGRAM_BUCKET - 1, buckets[i],
+                    "#".repeat(bar));
+        }
+    }
+
+    /**
+     * This method computes a percentile of the given values. The array gets sorted.
+     *
+     * @param values The values
+     * @param percent The percentile to compute
+     * @return The value or 0 if there are no values
+     */
+    private static long percentile(long[] values, int percent) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        final int index = (int) Math.ceil(percent / 100.0 * values.length) - 1;
+        return values[Math.max(0, Math.min(values.length - 1, index))];
+    }
+
+    /**
+     * This class contains the outcome of a single game.
+     */
+    public static final class GameResult {
+
+        /**
+         * Did the first agent win?
+         */
+        public final boolean aWon;
+
+        /**
+         * The number of shots fired by the first agent
+         */
+        public final int shotsA;
+
+        /**
+         * The number of shots fired by the second agent
+         */
+        public final int shotsB;
+
+        /**
+         * The duration of every move of the first agent in nanoseconds
+         */
+        private final long[] latenciesA;
+
+        /**
+         * The duration of every move of the second agent in nanoseconds
+         */
+        private final long[] latenciesB;
+
+        /**
+         * Construct a new game result
+         *
+         * @param aWon Did the first agent win?
+         * @param shotsA The number of shots fired by the first agent
+         * @param shotsB The number of shots fired by the second agent
+         * @param latenciesA The duration of every move of the first agent in nanoseconds
+         * @param latenciesB The duration of every move of the second agent in nanoseconds
+         */
+        GameResult(boolean aWon, int shotsA, int shotsB, long[] latenciesA, long[] latenciesB) {
+            this.aWon = aWon;
+            this.shotsA = shotsA;
+            this.shotsB = shotsB;
+            this.latenciesA = latenciesA;
+            this.latenciesB = latenciesB;
+        }
+    }
+}